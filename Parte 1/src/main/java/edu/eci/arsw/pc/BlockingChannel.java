@@ -0,0 +1,41 @@
+package edu.eci.arsw.pc;
+
+import java.util.Collection;
+
+/**
+ * Contrato común de las colas acotadas del laboratorio. PCApp elige la
+ * implementación una sola vez y Producer/Consumer solo conocen esta interfaz,
+ * así el bucle por elemento ve un único tipo y el JIT puede inlinear la llamada.
+ */
+public interface BlockingChannel<T> {
+
+  /** Inserta el elemento, esperando mientras la cola esté llena. */
+  void put(T item) throws InterruptedException;
+
+  /** Extrae el siguiente elemento, esperando mientras la cola esté vacía. */
+  T take() throws InterruptedException;
+
+  int size();
+
+  int capacity();
+
+  /** Inserta todos los elementos en orden; las implementaciones pueden hacerlo por lotes. */
+  default void putAll(Collection<? extends T> items) throws InterruptedException {
+    for (T item : items) {
+      put(item);
+    }
+  }
+
+  /**
+   * Espera al menos un elemento y mueve hasta {@code max} a {@code sink}. La
+   * versión por defecto mueve exactamente uno.
+   *
+   * @return cantidad de elementos movidos
+   */
+  default int drainTo(Collection<? super T> sink, int max) throws InterruptedException {
+    if (max <= 0)
+      return 0;
+    sink.add(take());
+    return 1;
+  }
+}
@@ -1,12 +1,23 @@
 package edu.eci.arsw.pc;
 
 import java.util.ArrayDeque;
+import java.util.Collection;
 import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
-/** Implementación correcta con monitores: synchronized + wait/notifyAll. */
-public final class BoundedBuffer<T> {
+/**
+ * Implementación correcta con monitores: ReentrantLock + dos Condition
+ * (notFull / notEmpty), así un put solo despierta consumidores y un take solo
+ * productores. putAll y drainTo mueven muchos elementos por adquisición.
+ */
+public final class BoundedBuffer<T> implements BlockingChannel<T> {
   private final Deque<T> q = new ArrayDeque<>();
   private final int capacity;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notFull = lock.newCondition();
+  private final Condition notEmpty = lock.newCondition();
 
   public BoundedBuffer(int capacity) {
     if (capacity <= 0)
@@ -14,32 +25,107 @@ public final class BoundedBuffer<T> {
     this.capacity = capacity;
   }
 
+  @Override
   public void put(T item) throws InterruptedException {
-    synchronized (this) {
+    lock.lockInterruptibly();
+    try {
       while (q.size() == capacity) {
-        this.wait(); // espera hasta que haya espacio
+        notFull.await(); // espera hasta que haya espacio
       }
       q.addLast(item);
-      this.notifyAll(); // despierta consumidores
+      notEmpty.signal(); // despierta a un consumidor
+    } finally {
+      lock.unlock();
     }
   }
 
+  @Override
   public T take() throws InterruptedException {
-    synchronized (this) {
+    lock.lockInterruptibly();
+    try {
       while (q.isEmpty()) {
-        this.wait(); // espera hasta que haya elementos
+        notEmpty.await(); // espera hasta que haya elementos
       }
       T v = q.removeFirst();
-      this.notifyAll(); // despierta productores
+      notFull.signal(); // despierta a un productor
       return v;
+    } finally {
+      lock.unlock();
     }
   }
 
-  public synchronized int size() {
-    return q.size();
+  /**
+   * Inserta todos los elementos en orden, llenando todo el espacio libre en
+   * cada adquisición. Si el lote no cabe espera a que haya espacio y continúa;
+   * si lo interrumpen, los elementos ya insertados quedan en el buffer.
+   */
+  @Override
+  public void putAll(Collection<? extends T> items) throws InterruptedException {
+    Iterator<? extends T> it = items.iterator();
+    lock.lockInterruptibly();
+    try {
+      while (it.hasNext()) {
+        while (q.size() == capacity) {
+          notFull.await();
+        }
+        int added = 0;
+        while (q.size() < capacity && it.hasNext()) {
+          q.addLast(it.next());
+          added++;
+        }
+        signal(notEmpty, added);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Espera a que haya al menos un elemento y mueve hasta {@code max} a
+   * {@code sink} en una sola adquisición.
+   *
+   * @return cantidad de elementos movidos
+   */
+  @Override
+  public int drainTo(Collection<? super T> sink, int max) throws InterruptedException {
+    if (max <= 0)
+      return 0;
+    lock.lockInterruptibly();
+    try {
+      while (q.isEmpty()) {
+        notEmpty.await();
+      }
+      int moved = 0;
+      while (moved < max && !q.isEmpty()) {
+        sink.add(q.removeFirst());
+        moved++;
+      }
+      signal(notFull, moved);
+      return moved;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int size() {
+    lock.lock();
+    try {
+      return q.size();
+    } finally {
+      lock.unlock();
+    }
   }
 
+  @Override
   public int capacity() {
     return capacity;
   }
+
+  /** Despierta a lo sumo {@code n} hilos: uno por elemento o hueco disponible. */
+  private static void signal(Condition condition, int n) {
+    for (int i = 0; i < n; i++) {
+      condition.signal();
+    }
+  }
 }
@@ -1,31 +1,40 @@
 package edu.eci.arsw.pc;
 
-import java.util.LinkedList;
-import java.util.Queue;
-
-public class BusySpinQueue<T> {
-    private final Queue<T> queue;
-    private final int capacity;
+/**
+ * Cola de baja latencia sin monitor: productores y consumidores nunca hacen
+ * wait/notify, sino que reintentan sobre un anillo {@link MpmcRingBuffer}
+ * siguiendo una {@link WaitStrategy} (girar con onSpinWait, ceder y/o
+ * estacionarse). Por defecto gira puro, así que cada hilo bloqueado ocupa un
+ * núcleo: conviene no tener más hilos esperando que núcleos disponibles.
+ */
+public class BusySpinQueue<T> implements BlockingChannel<T> {
+    private final MpmcRingBuffer<T> ring;
 
     public BusySpinQueue(int capacity) {
-        this.queue = new LinkedList<>();
-        this.capacity = capacity;
+        this(capacity, WaitStrategy.busySpin());
+    }
+
+    public BusySpinQueue(int capacity, WaitStrategy wait) {
+        this.ring = new MpmcRingBuffer<>(capacity, wait);
+    }
+
+    @Override
+    public void put(T item) throws InterruptedException {
+        ring.put(item); // gira mientras el buffer está lleno
+    }
+
+    @Override
+    public T take() throws InterruptedException {
+        return ring.take(); // gira mientras el buffer está vacío
     }
 
-    public synchronized void put(T item) throws InterruptedException {
-        while (queue.size() == capacity) {
-            wait(); //// mientras el buffer está lleno
-        }
-        queue.add(item);
-        notifyAll(); // notifica consumidores
+    @Override
+    public int size() {
+        return ring.size();
     }
 
-    public synchronized T take() throws InterruptedException {
-        while (queue.isEmpty()) {
-            wait(); // mientras el buffer está vacío
-        }
-        T item = queue.poll();
-        notifyAll(); // notifica productores
-        return item;
+    @Override
+    public int capacity() {
+        return ring.capacity();
     }
-}
\ No newline at end of file
+}
@@ -1,17 +1,42 @@
 package edu.eci.arsw.pc;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
 public final class Consumer implements Runnable {
   private final AtomicLong counter;
   private final long delayMs;
-  private final Object queue; // BusySpinQueue<?> or BoundedBuffer<?> explicado en el doc
+  private final int batchSize; // > 1 usa drainTo
+  // Exactamente uno de los dos: la cola se elige una vez en PCApp
+  private final BlockingChannel<Long> channel;
+  private final LongBoundedBuffer longs;
   private volatile boolean running = true;
 
-  public Consumer(Object queue, AtomicLong counter, long delayMs) {
-    this.queue = queue;
+  public Consumer(BlockingChannel<Long> channel, AtomicLong counter, long delayMs) {
+    this(channel, counter, delayMs, 1);
+  }
+
+  public Consumer(BlockingChannel<Long> channel, AtomicLong counter, long delayMs, int batchSize) {
+    this(channel, null, counter, delayMs, batchSize);
+  }
+
+  /** Consumidor sobre la cola de {@code long} primitivos: no hace unboxing. */
+  public Consumer(LongBoundedBuffer longs, AtomicLong counter, long delayMs, int batchSize) {
+    this(null, longs, counter, delayMs, batchSize);
+  }
+
+  private Consumer(BlockingChannel<Long> channel, LongBoundedBuffer longs, AtomicLong counter, long delayMs,
+      int batchSize) {
+    if (batchSize <= 0)
+      throw new IllegalArgumentException("batchSize must be > 0");
+    if ((channel == null) == (longs == null))
+      throw new IllegalArgumentException("exactly one queue is required");
+    this.channel = channel;
+    this.longs = longs;
     this.counter = counter;
     this.delayMs = delayMs;
+    this.batchSize = batchSize;
   }
 
   public void stop() {
@@ -21,25 +46,47 @@ public final class Consumer implements Runnable {
   @Override
   public void run() {
     try {
-      while (running) {
-        long v;
-        if (queue instanceof BusySpinQueue<?> sp) {
-          @SuppressWarnings("unchecked")
-          BusySpinQueue<Long> q = (BusySpinQueue<Long>) sp;
-          v = q.take();
-        } else if (queue instanceof BoundedBuffer<?> bb) {
-          @SuppressWarnings("unchecked")
-          BoundedBuffer<Long> q = (BoundedBuffer<Long>) bb;
-          v = q.take();
-        } else {
-          v = -1;
-        }
-        counter.incrementAndGet();
-        if (delayMs > 0)
-          Thread.sleep(delayMs);
-      }
+      if (longs != null)
+        runLongs();
+      else if (batchSize > 1)
+        runBatched();
+      else
+        runSingle();
     } catch (InterruptedException ie) {
       Thread.currentThread().interrupt();
     }
   }
+
+  private void runSingle() throws InterruptedException {
+    while (running) {
+      long v = channel.take();
+      counter.incrementAndGet();
+      if (delayMs > 0)
+        Thread.sleep(delayMs);
+    }
+  }
+
+  private void runBatched() throws InterruptedException {
+    List<Long> batch = new ArrayList<>(batchSize);
+    while (running) {
+      batch.clear();
+      counter.addAndGet(channel.drainTo(batch, batchSize)); // un lote por adquisición del lock
+      if (delayMs > 0)
+        Thread.sleep(delayMs);
+    }
+  }
+
+  private void runLongs() throws InterruptedException {
+    long[] batch = new long[batchSize];
+    while (running) {
+      if (batchSize == 1) {
+        long v = longs.take(); // sin unboxing
+        counter.incrementAndGet();
+      } else {
+        counter.addAndGet(longs.drainTo(batch, batchSize));
+      }
+      if (delayMs > 0)
+        Thread.sleep(delayMs);
+    }
+  }
 }
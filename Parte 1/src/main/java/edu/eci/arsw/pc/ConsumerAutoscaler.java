@@ -0,0 +1,186 @@
+package edu.eci.arsw.pc;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Controlador que ajusta el número de consumidores según la ocupación de la
+ * cola. Con la cola casi llena los productores están bloqueados: se agregan
+ * consumidores (la mitad de los actuales, mínimo uno) y se anota cuánto rinde
+ * cada uno saturado. Con la cola casi vacía se retira uno por intervalo, pero
+ * solo si los que quedan alcanzan para el ritmo actual; así no oscila
+ * alrededor del punto justo. Siempre dentro de [min, max].
+ * <p>
+ * También mide cuánto tarda el sistema en estabilizarse: el throughput de
+ * consumo se considera estable cuando varía menos de 5% durante
+ * {@value #STABLE_TICKS} intervalos seguidos sin cambios de escala.
+ */
+public final class ConsumerAutoscaler implements AutoCloseable {
+  private static final double HIGH_WATERMARK = 0.75;
+  private static final double LOW_WATERMARK = 0.25;
+  private static final double STABLE_TOLERANCE = 0.05;
+  private static final int STABLE_TICKS = 3;
+
+  private final IntSupplier depth;
+  private final int capacity;
+  private final LongSupplier consumed;
+  private final Supplier<Consumer> factory;
+  private final ExecutorService exec;
+  private final int min;
+  private final int max;
+  private final Duration interval;
+  // Protegido por el monitor de this
+  private final Deque<Worker> workers = new ArrayDeque<>();
+  private volatile int current;
+  private volatile double lastRate;
+  private volatile long convergedAfterNanos = -1;
+  private double saturatedRatePerConsumer; // solo lo usa el hilo de control
+  private volatile boolean running = true;
+  private Thread control;
+
+  private record Worker(Consumer consumer, Future<?> future) {
+  }
+
+  /**
+   * @param depth    ocupación actual de la cola
+   * @param capacity capacidad de la cola
+   * @param consumed total de elementos consumidos hasta ahora
+   * @param factory  crea un consumidor nuevo sobre la cola
+   * @param exec     donde corren los consumidores
+   */
+  public ConsumerAutoscaler(IntSupplier depth, int capacity, LongSupplier consumed, Supplier<Consumer> factory,
+      ExecutorService exec, int min, int max, Duration interval) {
+    if (min <= 0 || max < min)
+      throw new IllegalArgumentException("require 0 < min <= max");
+    this.depth = depth;
+    this.capacity = capacity;
+    this.consumed = consumed;
+    this.factory = factory;
+    this.exec = exec;
+    this.min = min;
+    this.max = max;
+    this.interval = interval;
+  }
+
+  /** Lanza {@code min} consumidores y el hilo de control. */
+  public synchronized void start() {
+    if (control != null)
+      throw new IllegalStateException("autoscaler already started");
+    resize(min);
+    control = Thread.ofVirtual().name("consumer-autoscaler").start(this::controlLoop);
+  }
+
+  public int consumers() {
+    return current;
+  }
+
+  /** Throughput de consumo del último intervalo, en elementos por segundo. */
+  public double lastRate() {
+    return lastRate;
+  }
+
+  /** Tiempo desde start() hasta que el throughput se estabilizó, o -1 si aún no. */
+  public long convergedAfterMs() {
+    long n = convergedAfterNanos;
+    return n < 0 ? -1 : n / 1_000_000;
+  }
+
+  private void controlLoop() {
+    long start = System.nanoTime();
+    long stableSince = start;
+    int stableTicks = 0;
+    long prevConsumed = consumed.getAsLong();
+    double prevRate = -1;
+    try {
+      while (running) {
+        Thread.sleep(interval.toMillis());
+        long now = System.nanoTime();
+        long c = consumed.getAsLong();
+        double rate = (c - prevConsumed) / (interval.toNanos() / 1e9);
+        prevConsumed = c;
+        lastRate = rate;
+
+        double fill = depth.getAsInt() / (double) capacity;
+        int before = current;
+        if (fill >= HIGH_WATERMARK) {
+          saturatedRatePerConsumer = rate / before;
+          if (before < max)
+            resize(Math.min(max, before + Math.max(1, before / 2)));
+        } else if (fill <= LOW_WATERMARK && before > min && canShrink(rate, before)) {
+          resize(before - 1);
+        }
+        if (current != before) {
+          System.out.printf("autoscale: consumers %d -> %d (fill=%.0f%% rate=%.0f/s)%n",
+              before, current, fill * 100, rate);
+        }
+
+        // estable = sin cambios de escala y throughput dentro de la tolerancia
+        boolean steady = current == before && prevRate > 0
+            && Math.abs(rate - prevRate) <= STABLE_TOLERANCE * prevRate;
+        if (!steady) {
+          stableTicks = 0;
+          stableSince = now;
+          convergedAfterNanos = -1;
+        } else if (++stableTicks == STABLE_TICKS) {
+          convergedAfterNanos = stableSince - start;
+          System.out.printf("autoscale: steady at %.0f/s with %d consumers after %d ms%n",
+              rate, current, convergedAfterMs());
+        }
+        prevRate = rate;
+      }
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** Retirar uno solo si los restantes, saturados, superan el ritmo actual con margen. */
+  private boolean canShrink(double rate, int n) {
+    return saturatedRatePerConsumer == 0
+        || saturatedRatePerConsumer * (n - 1) * (1 - 2 * STABLE_TOLERANCE) > rate;
+  }
+
+  /** Resumen para imprimir al final de la corrida (antes de close()). */
+  public String report() {
+    long ms = convergedAfterMs();
+    return String.format("Autoscale: consumers=%d rate=%.0f/s convergence=%s", current, lastRate,
+        ms < 0 ? "not reached" : ms + "ms");
+  }
+
+  private synchronized void resize(int target) {
+    while (workers.size() < target) {
+      Consumer c = factory.get();
+      workers.push(new Worker(c, exec.submit(c)));
+    }
+    while (workers.size() > target) {
+      Worker w = workers.pop();
+      w.consumer().stop();
+      w.future().cancel(true); // lo despierta si está bloqueado en take
+    }
+    current = workers.size();
+  }
+
+  /** Detiene el control y todos los consumidores que lanzó. */
+  @Override
+  public void close() {
+    running = false;
+    Thread t;
+    synchronized (this) {
+      t = control;
+    }
+    if (t != null) {
+      t.interrupt();
+      try {
+        t.join();
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    resize(0);
+  }
+}
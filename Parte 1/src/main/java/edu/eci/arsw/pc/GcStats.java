@@ -0,0 +1,35 @@
+package edu.eci.arsw.pc;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Foto de la memoria asignada y del trabajo del GC, para comparar cuánta
+ * basura genera cada tipo de cola (por ejemplo Long en caja vs long).
+ */
+public record GcStats(long allocatedBytes, long collections, long collectionMs) {
+
+  public static GcStats capture() {
+    long allocated = -1;
+    if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+        && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+      // los hilos virtuales asignan a cuenta de sus carriers, que sí se cuentan aquí
+      allocated = threads.getTotalThreadAllocatedBytes();
+    }
+    long count = 0;
+    long time = 0;
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      count += Math.max(0, gc.getCollectionCount());
+      time += Math.max(0, gc.getCollectionTime());
+    }
+    return new GcStats(allocated, count, time);
+  }
+
+  /** Diferencia entre esta foto y una anterior, lista para imprimir. */
+  public String since(GcStats start, long items) {
+    long bytes = allocatedBytes < 0 || start.allocatedBytes < 0 ? -1 : allocatedBytes - start.allocatedBytes;
+    return String.format("AllocatedMB=%.1f BytesPerItem=%.1f GCs=%d GCTimeMs=%d",
+        bytes / 1e6, items == 0 ? 0.0 : bytes / (double) items,
+        collections - start.collections, collectionMs - start.collectionMs);
+  }
+}
@@ -0,0 +1,73 @@
+package edu.eci.arsw.pc;
+
+/**
+ * Histograma log-lineal al estilo HdrHistogram: cada potencia de dos se parte
+ * en 64 sub-cubetas lineales (~1.5% de error relativo) con tamaño fijo.
+ * No es thread-safe: uno por hilo y se combinan con {@link #add}.
+ */
+final class LatencyHistogram {
+  private static final int SUB_BITS = 6;
+  private static final int SUB = 1 << SUB_BITS;
+  private static final int BUCKETS = (64 - SUB_BITS) * SUB;
+
+  private final long[] counts = new long[BUCKETS];
+  private long total;
+  private long max;
+
+  void record(long value) {
+    long v = Math.max(0, value);
+    counts[indexOf(v)]++;
+    total++;
+    if (v > max)
+      max = v;
+  }
+
+  void add(LatencyHistogram other) {
+    for (int i = 0; i < BUCKETS; i++)
+      counts[i] += other.counts[i];
+    total += other.total;
+    max = Math.max(max, other.max);
+  }
+
+  long count() {
+    return total;
+  }
+
+  long max() {
+    return max;
+  }
+
+  /** Valor aproximado en el cuantil dado (0.99 = p99), 0 si está vacío. */
+  long percentile(double quantile) {
+    if (total == 0)
+      return 0;
+    long rank = Math.max(1, (long) Math.ceil(quantile * total));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts[i];
+      if (seen >= rank)
+        return Math.min(max, valueOf(i));
+    }
+    return max;
+  }
+
+  private static int indexOf(long v) {
+    if (v < SUB)
+      return (int) v;
+    int msb = 63 - Long.numberOfLeadingZeros(v);
+    int bucket = msb - SUB_BITS + 1;
+    int sub = (int) (v >>> (msb - SUB_BITS)) - SUB;
+    return bucket * SUB + sub;
+  }
+
+  /** Punto medio de los valores que caen en {@code index}. */
+  private static long valueOf(int index) {
+    if (index < SUB)
+      return index;
+    int bucket = index / SUB;
+    int sub = index % SUB;
+    int shift = bucket - 1;
+    long lower = (long) (SUB + sub) << shift;
+    return lower + ((1L << shift) >> 1);
+  }
+}
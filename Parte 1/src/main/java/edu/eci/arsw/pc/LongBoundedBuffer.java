@@ -0,0 +1,118 @@
+package edu.eci.arsw.pc;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Versión de {@link BoundedBuffer} especializada en {@code long}: guarda los
+ * valores en un {@code long[]} circular, así put/take no crean ni un objeto
+ * {@code Long} por elemento y el camino caliente no genera basura.
+ */
+public final class LongBoundedBuffer {
+  private final long[] items;
+  private final int capacity;
+  private int head; // siguiente posición a leer
+  private int count;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notFull = lock.newCondition();
+  private final Condition notEmpty = lock.newCondition();
+
+  public LongBoundedBuffer(int capacity) {
+    if (capacity <= 0)
+      throw new IllegalArgumentException("capacity must be > 0");
+    this.capacity = capacity;
+    this.items = new long[capacity];
+  }
+
+  public void put(long item) throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      while (count == capacity) {
+        notFull.await(); // espera hasta que haya espacio
+      }
+      items[(head + count) % capacity] = item;
+      count++;
+      notEmpty.signal(); // despierta a un consumidor
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public long take() throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      while (count == 0) {
+        notEmpty.await(); // espera hasta que haya elementos
+      }
+      long v = items[head];
+      head = (head + 1) % capacity;
+      count--;
+      notFull.signal(); // despierta a un productor
+      return v;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Inserta {@code src[off, off + len)} llenando todo el espacio libre en cada adquisición. */
+  public void putAll(long[] src, int off, int len) throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      int end = off + len;
+      while (off < end) {
+        while (count == capacity) {
+          notFull.await();
+        }
+        int added = 0;
+        while (count < capacity && off < end) {
+          items[(head + count) % capacity] = src[off++];
+          count++;
+          added++;
+        }
+        for (int i = 0; i < added; i++) {
+          notEmpty.signal();
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Espera al menos un elemento y copia hasta {@code max} en {@code dst}; devuelve cuántos. */
+  public int drainTo(long[] dst, int max) throws InterruptedException {
+    int limit = Math.min(max, dst.length);
+    if (limit <= 0)
+      return 0;
+    lock.lockInterruptibly();
+    try {
+      while (count == 0) {
+        notEmpty.await();
+      }
+      int moved = 0;
+      while (moved < limit && count > 0) {
+        dst[moved++] = items[head];
+        head = (head + 1) % capacity;
+        count--;
+      }
+      for (int i = 0; i < moved; i++) {
+        notFull.signal();
+      }
+      return moved;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int size() {
+    lock.lock();
+    try {
+      return count;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int capacity() {
+    return capacity;
+  }
+}
@@ -0,0 +1,168 @@
+package edu.eci.arsw.pc;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Buffer acotado multi-productor/multi-consumidor sin locks (anillo de Vyukov).
+ * Cada celda lleva un número de secuencia que dice si está libre para el
+ * productor de la vuelta actual o lista para el consumidor, de modo que put y
+ * take solo compiten con un CAS sobre tail o head. Los contadores van
+ * separados por relleno para no compartir línea de caché.
+ */
+public final class MpmcRingBuffer<T> extends RingPad2 implements BlockingChannel<T> {
+  private static final VarHandle HEAD;
+  private static final VarHandle TAIL;
+
+  static {
+    try {
+      var lookup = MethodHandles.lookup();
+      HEAD = lookup.findVarHandle(RingHead.class, "head", long.class);
+      TAIL = lookup.findVarHandle(RingTail.class, "tail", long.class);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private final int capacity;
+  private final Object[] items;
+  private final AtomicLongArray sequences;
+  private final WaitStrategy wait;
+
+  public MpmcRingBuffer(int capacity) {
+    this(capacity, WaitStrategy.hybrid(64, 64, 1_000_000L));
+  }
+
+  /** Usa {@code wait} cuando put/take bloqueantes encuentran el buffer lleno o vacío. */
+  public MpmcRingBuffer(int capacity, WaitStrategy wait) {
+    if (capacity <= 0)
+      throw new IllegalArgumentException("capacity must be > 0");
+    this.wait = Objects.requireNonNull(wait);
+    this.capacity = capacity;
+    this.items = new Object[capacity];
+    this.sequences = new AtomicLongArray(capacity);
+    for (int i = 0; i < capacity; i++)
+      sequences.set(i, i);
+  }
+
+  /** Inserta sin bloquear; devuelve false si el buffer está lleno. */
+  public boolean offer(T item) {
+    if (item == null)
+      throw new NullPointerException("item");
+    long pos = (long) TAIL.getOpaque(this);
+    while (true) {
+      int slot = (int) (pos % capacity);
+      long seq = sequences.getAcquire(slot);
+      long dif = seq - pos;
+      if (dif == 0) {
+        if (TAIL.compareAndSet(this, pos, pos + 1)) {
+          items[slot] = item;
+          sequences.setRelease(slot, pos + 1); // publica la celda al consumidor
+          return true;
+        }
+        pos = (long) TAIL.getOpaque(this);
+      } else if (dif < 0) {
+        return false; // la celda aún no la libera el consumidor de la vuelta anterior
+      } else {
+        pos = (long) TAIL.getOpaque(this);
+      }
+    }
+  }
+
+  /** Extrae sin bloquear; devuelve null si el buffer está vacío. */
+  @SuppressWarnings("unchecked")
+  public T poll() {
+    long pos = (long) HEAD.getOpaque(this);
+    while (true) {
+      int slot = (int) (pos % capacity);
+      long seq = sequences.getAcquire(slot);
+      long dif = seq - (pos + 1);
+      if (dif == 0) {
+        if (HEAD.compareAndSet(this, pos, pos + 1)) {
+          T item = (T) items[slot];
+          items[slot] = null;
+          sequences.setRelease(slot, pos + capacity); // libera la celda para la siguiente vuelta
+          return item;
+        }
+        pos = (long) HEAD.getOpaque(this);
+      } else if (dif < 0) {
+        return null;
+      } else {
+        pos = (long) HEAD.getOpaque(this);
+      }
+    }
+  }
+
+  @Override
+  public void put(T item) throws InterruptedException {
+    for (int attempt = 0; !offer(item); attempt++)
+      wait.idle(attempt);
+  }
+
+  @Override
+  public T take() throws InterruptedException {
+    T item;
+    for (int attempt = 0; (item = poll()) == null; attempt++)
+      wait.idle(attempt);
+    return item;
+  }
+
+  /** put con tiempo máximo de espera; devuelve false si venció. */
+  public boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    for (int attempt = 0; !offer(item); attempt++) {
+      if (System.nanoTime() - deadline >= 0)
+        return false;
+      wait.idle(attempt);
+    }
+    return true;
+  }
+
+  /** take con tiempo máximo de espera; devuelve null si venció. */
+  public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    T item;
+    for (int attempt = 0; (item = poll()) == null; attempt++) {
+      if (System.nanoTime() - deadline >= 0)
+        return null;
+      wait.idle(attempt);
+    }
+    return item;
+  }
+
+  @Override
+  public int size() {
+    long head = (long) HEAD.getVolatile(this);
+    long tail = (long) TAIL.getVolatile(this);
+    return (int) Math.max(0, Math.min(capacity, tail - head));
+  }
+
+  @Override
+  public int capacity() {
+    return capacity;
+  }
+}
+
+// Relleno de 64 bytes a cada lado de head y tail para evitar false sharing.
+abstract class RingPad0 {
+  long p00, p01, p02, p03, p04, p05, p06, p07;
+}
+
+abstract class RingHead extends RingPad0 {
+  volatile long head;
+}
+
+abstract class RingPad1 extends RingHead {
+  long p10, p11, p12, p13, p14, p15, p16, p17;
+}
+
+abstract class RingTail extends RingPad1 {
+  volatile long tail;
+}
+
+abstract class RingPad2 extends RingTail {
+  long p20, p21, p22, p23, p24, p25, p26, p27;
+}
@@ -1,9 +1,11 @@
 package edu.eci.arsw.pc;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 public final class PCApp {
   private PCApp() {
@@ -64,26 +66,44 @@ public final class PCApp {
 //--------- PUNTO 3-------------
 public static void main(String[] args) throws Exception {
   // productor rápido, el consumidor lento y buffer pequeño
-  String mode = System.getProperty("mode", "monitor");
+  String mode = System.getProperty("mode", "monitor"); // monitor|spin|ring|long
   int producers = Integer.getInteger("producers", 1);
   int consumers = Integer.getInteger("consumers", 1);
   int capacity = Integer.getInteger("capacity", 5);    //5 (stock pequeño)
   long prodDelay = Long.getLong("prodDelayMs", 10L);   //productor rápido (10ms)
   long consDelay = Long.getLong("consDelayMs", 100L);  //consumidor lento (100ms)
   int duration = Integer.getInteger("durationSec", 20);
+  String wait = System.getProperty("wait", "hybrid"); // spin|yield|park|hybrid (solo mode=spin)
+  int batchSize = Integer.getInteger("batchSize", 1); // > 1 usa putAll/drainTo
+  boolean autoscale = Boolean.getBoolean("autoscale"); // consumers pasa a ser el mínimo
+  int maxConsumers = Integer.getInteger("maxConsumers", 32);
 
   System.out.printf(
       "PCApp mode=%s producers=%d consumers=%d capacity=%d prodDelay=%dms consDelay=%dms duration=%ds%n",
       mode, producers, consumers, capacity, prodDelay, consDelay, duration);
-
-  Object queue;
+  if (batchSize > 1)
+    System.out.println("batchSize=" + batchSize);
+  if (autoscale)
+    System.out.println("autoscale consumers=" + consumers + ".." + maxConsumers);
+
+  // La cola se elige una sola vez; Producer/Consumer solo ven BlockingChannel
+  BlockingChannel<Long> channel = null;
+  LongBoundedBuffer longs = null;
   if ("spin".equalsIgnoreCase(mode)) {
-    queue = new BusySpinQueue<Long>(capacity);
+    channel = new BusySpinQueue<>(capacity, WaitStrategy.named(wait));
+    System.out.println("wait=" + wait);
+  } else if ("ring".equalsIgnoreCase(mode)) {
+    channel = new MpmcRingBuffer<>(capacity); // anillo MPMC sin locks
+  } else if ("long".equalsIgnoreCase(mode)) {
+    longs = new LongBoundedBuffer(capacity); // long[] sin boxing
   } else {
-    queue = new BoundedBuffer<Long>(capacity);
+    channel = new BoundedBuffer<>(capacity);
   }
 
-  var exec = Executors.newVirtualThreadPerTaskExecutor();
+  // Girar en un hilo virtual acapara su carrier; en modo spin se usan hilos de plataforma
+  var exec = "spin".equalsIgnoreCase(mode)
+      ? Executors.newThreadPerTaskExecutor(Thread.ofPlatform().daemon().factory())
+      : Executors.newVirtualThreadPerTaskExecutor();
   List<Producer> prodList = new ArrayList<>();
   List<Consumer> consList = new ArrayList<>();
   AtomicLong produced = new AtomicLong();
@@ -91,28 +111,51 @@ public static void main(String[] args) throws Exception {
 
   // Crear productores
   for (int i = 0; i < producers; i++) {
-    var p = new Producer(queue, produced, prodDelay);
+    var p = longs != null
+        ? new Producer(longs, produced, prodDelay, batchSize)
+        : new Producer(channel, produced, prodDelay, batchSize);
     prodList.add(p);
     exec.submit(p);
   }
 
   // Crear consumidore
-  for (int i = 0; i < consumers; i++) {
-    var c = new Consumer(queue, consumed, consDelay);
-    consList.add(c);
-    exec.submit(c);
+  final BlockingChannel<Long> ch = channel;
+  final LongBoundedBuffer lb = longs;
+  Supplier<Consumer> newConsumer = () -> lb != null
+      ? new Consumer(lb, consumed, consDelay, batchSize)
+      : new Consumer(ch, consumed, consDelay, batchSize);
+  ConsumerAutoscaler scaler = null;
+  if (autoscale) {
+    scaler = new ConsumerAutoscaler(lb != null ? lb::size : ch::size, capacity, consumed::get, newConsumer,
+        exec, consumers, maxConsumers, Duration.ofSeconds(1));
+    scaler.start();
+  } else {
+    for (int i = 0; i < consumers; i++) {
+      var c = newConsumer.get();
+      consList.add(c);
+      exec.submit(c);
+    }
   }
 
+  GcStats gcStart = GcStats.capture();
   Thread.sleep(duration * 1000L);
+  GcStats gcEnd = GcStats.capture();
+  String scaleReport = scaler != null ? scaler.report() : null;
 
   prodList.forEach(Producer::stop);
   consList.forEach(Consumer::stop);
+  if (scaler != null)
+    scaler.close();
+  exec.shutdownNow(); // interrumpe a quien siga bloqueado en put/take
   exec.close();
 
   System.out.printf("Produced=%d Consumed=%d QueueSize=%d%n",
-      produced.get(), consumed.get(),
-      queue instanceof BusySpinQueue<?> sp ? sp.size() : ((BoundedBuffer<?>) queue).size());
+      produced.get(), consumed.get(), longs != null ? longs.size() : channel.size());
+  System.out.println(gcEnd.since(gcStart, consumed.get()));
+  if (scaleReport != null)
+    System.out.println(scaleReport);
 
   System.out.println("TIP: Compare CPU with VisualVM: spin (busy-wait) vs monitor (wait/notify).");
+  System.out.println("TIP: PCBenchmark sweeps modes/capacities and writes latency + CPU as CSV (-Dout=file.csv).");
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,182 @@
+package edu.eci.arsw.pc;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Banco de pruebas de las colas: cada elemento lleva el System.nanoTime() del
+ * put y el consumidor registra cuánto tardó en recibirlo. Recorre todas las
+ * combinaciones de modo, capacidad, productores y consumidores y escribe una
+ * fila CSV por corrida (a -Dout o a la salida estándar), con el CPU del
+ * proceso medido por OperatingSystemMXBean en lugar de VisualVM.
+ *
+ * <pre>
+ * -Dmodes=monitor,ring,spin,long -Dcapacities=16,1024 -Dproducers=1,4 -Dconsumers=1,4
+ * -DdurationSec=3 -DwarmupSec=1 -DprodDelayUs=0 -Dwait=hybrid -Dout=pc.csv
+ * </pre>
+ */
+public final class PCBenchmark {
+  static final String CSV_HEADER = "mode,capacity,producers,consumers,items,throughput_per_s,"
+      + "p50_us,p99_us,p999_us,max_us,cpu_ms,cpu_cores,cpu_ns_per_item";
+
+  private PCBenchmark() {
+  }
+
+  /** Resultado de una corrida: una fila del CSV. */
+  record Result(String mode, int capacity, int producers, int consumers, long items, double seconds,
+      LatencyHistogram latency, long cpuNanos) {
+
+    String toCsv() {
+      return String.format("%s,%d,%d,%d,%d,%.0f,%.1f,%.1f,%.1f,%.1f,%d,%.2f,%.0f",
+          mode, capacity, producers, consumers, items, items / seconds,
+          latency.percentile(0.50) / 1e3, latency.percentile(0.99) / 1e3, latency.percentile(0.999) / 1e3,
+          latency.max() / 1e3, cpuNanos / 1_000_000, cpuNanos / (seconds * 1e9),
+          items == 0 ? 0.0 : cpuNanos / (double) items);
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    List<String> modes = Arrays.asList(System.getProperty("modes", "monitor,ring,spin,long").split(","));
+    int[] capacities = ints(System.getProperty("capacities", "16,1024"));
+    int[] producers = ints(System.getProperty("producers", "1,4"));
+    int[] consumers = ints(System.getProperty("consumers", "1,4"));
+    long durationSec = Long.getLong("durationSec", 3L);
+    long warmupSec = Long.getLong("warmupSec", 1L);
+    long prodDelayUs = Long.getLong("prodDelayUs", 0L);
+    String wait = System.getProperty("wait", "hybrid");
+    String out = System.getProperty("out");
+
+    List<String> rows = new ArrayList<>();
+    rows.add(CSV_HEADER);
+    System.out.println(CSV_HEADER);
+    for (String mode : modes) {
+      for (int capacity : capacities) {
+        for (int p : producers) {
+          for (int c : consumers) {
+            Result r = run(mode.trim(), capacity, p, c, warmupSec, durationSec, prodDelayUs, wait);
+            rows.add(r.toCsv());
+            System.out.println(r.toCsv());
+          }
+        }
+      }
+    }
+    if (out != null) {
+      Files.write(Path.of(out), rows);
+      System.out.println("CSV written to " + out);
+    }
+  }
+
+  /**
+   * Una corrida: calentamiento sin medir, luego {@code durationSec} midiendo
+   * latencia, elementos y CPU. Se usan hilos de plataforma en todos los modos
+   * para que la comparación sea justa (en spin un hilo virtual acapara su carrier).
+   */
+  static Result run(String mode, int capacity, int producers, int consumers, long warmupSec, long durationSec,
+      long prodDelayUs, String wait) throws InterruptedException {
+    BlockingChannel<Long> channel = null;
+    LongBoundedBuffer longs = null;
+    switch (mode) {
+      case "monitor" -> channel = new BoundedBuffer<>(capacity);
+      case "ring" -> channel = new MpmcRingBuffer<>(capacity);
+      case "spin" -> channel = new BusySpinQueue<>(capacity, WaitStrategy.named(wait));
+      case "long" -> longs = new LongBoundedBuffer(capacity);
+      default -> throw new IllegalArgumentException("Unknown mode: " + mode);
+    }
+
+    Run state = new Run(consumers);
+    long delayNanos = TimeUnit.MICROSECONDS.toNanos(prodDelayUs);
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < producers; i++) {
+      BlockingChannel<Long> ch = channel;
+      LongBoundedBuffer lb = longs;
+      threads.add(Thread.ofPlatform().daemon().name("bench-producer-" + i).start(
+          () -> state.produce(ch, lb, delayNanos)));
+    }
+    for (int i = 0; i < consumers; i++) {
+      BlockingChannel<Long> ch = channel;
+      LongBoundedBuffer lb = longs;
+      LatencyHistogram h = state.histograms[i];
+      threads.add(Thread.ofPlatform().daemon().name("bench-consumer-" + i).start(
+          () -> state.consume(ch, lb, h)));
+    }
+
+    Thread.sleep(TimeUnit.SECONDS.toMillis(warmupSec));
+    long cpu0 = processCpuNanos();
+    long t0 = System.nanoTime();
+    state.recording = true;
+    Thread.sleep(TimeUnit.SECONDS.toMillis(durationSec));
+    state.recording = false;
+    long t1 = System.nanoTime();
+    long cpu1 = processCpuNanos();
+
+    state.running = false;
+    for (Thread t : threads)
+      t.interrupt(); // despierta a quien siga bloqueado en put/take
+    for (Thread t : threads)
+      t.join();
+
+    LatencyHistogram all = new LatencyHistogram();
+    for (LatencyHistogram h : state.histograms)
+      all.add(h);
+    return new Result(mode, capacity, producers, consumers, all.count(), (t1 - t0) / 1e9, all, cpu1 - cpu0);
+  }
+
+  /** CPU acumulado por el proceso en ns, o -1 si la JVM no lo expone. */
+  static long processCpuNanos() {
+    if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os)
+      return os.getProcessCpuTime();
+    return -1;
+  }
+
+  private static int[] ints(String csv) {
+    return Arrays.stream(csv.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+  }
+
+  /** Estado compartido de una corrida; cada consumidor escribe solo su histograma. */
+  private static final class Run {
+    final LatencyHistogram[] histograms;
+    volatile boolean running = true;
+    volatile boolean recording;
+
+    Run(int consumers) {
+      histograms = new LatencyHistogram[consumers];
+      for (int i = 0; i < consumers; i++)
+        histograms[i] = new LatencyHistogram();
+    }
+
+    void produce(BlockingChannel<Long> channel, LongBoundedBuffer longs, long delayNanos) {
+      try {
+        while (running) {
+          if (longs != null)
+            longs.put(System.nanoTime()); // el elemento es su propio sello de tiempo
+          else
+            channel.put(System.nanoTime());
+          if (delayNanos > 0)
+            LockSupport.parkNanos(delayNanos);
+        }
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    void consume(BlockingChannel<Long> channel, LongBoundedBuffer longs, LatencyHistogram h) {
+      try {
+        while (running) {
+          long stamp = longs != null ? longs.take() : channel.take();
+          if (recording)
+            h.record(System.nanoTime() - stamp);
+        }
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
@@ -0,0 +1,242 @@
+package edu.eci.arsw.pc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Pipeline por etapas sobre {@link BoundedBuffer}: una fuente, N etapas
+ * intermedias y un sumidero. Cada etapa tiene su propia cola acotada de
+ * entrada y su número de hilos virtuales; cuando una etapa se atrasa su cola
+ * se llena y el put de la etapa anterior bloquea (backpressure).
+ *
+ * <pre>
+ * Pipeline p = Pipeline.from("source", source)
+ *     .stage("parse", 2, 256, Parser::parse)
+ *     .sink("sink", 1, 256, out::add);
+ * p.start();
+ * p.await();
+ * </pre>
+ *
+ * El fin del flujo se propaga con píldoras venenosas: el último hilo de cada
+ * etapa en terminar envía una por cada hilo de la etapa siguiente.
+ */
+public final class Pipeline {
+  private static final Object POISON = new Object();
+
+  /** Fuente de datos; {@code null} indica fin del flujo. Solo la usa un hilo. */
+  @FunctionalInterface
+  public interface Source<T> {
+    T next() throws InterruptedException;
+  }
+
+  private final String sourceName;
+  private final Source<?> source;
+  private final List<Stage> stages;
+  private final LongAdder emitted = new LongAdder();
+  private final AtomicReference<Throwable> failure = new AtomicReference<>();
+  private final CountDownLatch done;
+  private final ExecutorService exec = Executors.newVirtualThreadPerTaskExecutor();
+  private volatile long startNanos;
+  private volatile long endNanos;
+
+  private Pipeline(String sourceName, Source<?> source, List<Stage> stages) {
+    this.sourceName = sourceName;
+    this.source = source;
+    this.stages = List.copyOf(stages);
+    int workers = 1;
+    for (Stage s : stages)
+      workers += s.parallelism;
+    this.done = new CountDownLatch(workers);
+  }
+
+  public static <T> Builder<T> from(String name, Source<T> source) {
+    return new Builder<>(name, source, new ArrayList<>());
+  }
+
+  /** Arranca la fuente y todos los hilos de las etapas. Solo se puede llamar una vez. */
+  public synchronized void start() {
+    if (startNanos != 0)
+      throw new IllegalStateException("pipeline already started");
+    startNanos = System.nanoTime();
+    for (Stage s : stages) {
+      for (int i = 0; i < s.parallelism; i++)
+        exec.submit(() -> runWorker(s));
+    }
+    exec.submit(this::runSource);
+  }
+
+  /**
+   * Espera a que el flujo termine en todas las etapas.
+   *
+   * @throws ExecutionException si alguna etapa lanzó una excepción (el pipeline se cancela)
+   */
+  public List<StageStats> await() throws InterruptedException, ExecutionException {
+    done.await();
+    exec.close();
+    Throwable t = failure.get();
+    if (t != null)
+      throw new ExecutionException("pipeline stage failed", t);
+    return stats();
+  }
+
+  /** Interrumpe todas las etapas; los elementos en vuelo se descartan. */
+  public void cancel() {
+    exec.shutdownNow();
+  }
+
+  public boolean isDone() {
+    return done.getCount() == 0;
+  }
+
+  /** Foto de la fuente y de cada etapa; se puede llamar mientras corre. */
+  public List<StageStats> stats() {
+    long end = endNanos != 0 ? endNanos : System.nanoTime();
+    double secs = startNanos == 0 ? 0 : Math.max(1e-9, (end - startNanos) / 1e9);
+    List<StageStats> out = new ArrayList<>(stages.size() + 1);
+    long n = emitted.sum();
+    out.add(new StageStats(sourceName, 1, n, 0, 0, secs == 0 ? 0 : n / secs));
+    for (Stage s : stages) {
+      long p = s.processed.sum();
+      out.add(new StageStats(s.name, s.parallelism, p, s.input.size(), s.input.capacity(), secs == 0 ? 0 : p / secs));
+    }
+    return out;
+  }
+
+  /**
+   * Etapa que está frenando a las anteriores: la más adelantada entre las de
+   * cola de entrada más llena (las de antes se llenan por su culpa).
+   *
+   * @return la etapa, o {@code null} si todas las colas están vacías
+   */
+  public StageStats bottleneck() {
+    StageStats worst = null;
+    for (StageStats s : stats()) {
+      if (s.queueDepth() > 0 && (worst == null || s.fillRatio() >= worst.fillRatio()))
+        worst = s;
+    }
+    return worst;
+  }
+
+  private void runSource() {
+    try {
+      Stage first = stages.get(0);
+      Object v;
+      while ((v = source.next()) != null) {
+        first.input.put(v); // bloquea si la primera etapa va atrasada
+        emitted.increment();
+      }
+      first.poison();
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+    } catch (RuntimeException e) {
+      fail(e);
+    } finally {
+      finish();
+    }
+  }
+
+  private void runWorker(Stage s) {
+    try {
+      while (true) {
+        Object item = s.input.take();
+        if (item == POISON)
+          break;
+        Object out = s.fn.apply(item);
+        s.processed.increment();
+        if (out != null && s.next != null)
+          s.next.input.put(out); // null descarta el elemento (filtro)
+      }
+      // el último hilo de la etapa avisa a todos los de la siguiente
+      if (s.alive.decrementAndGet() == 0 && s.next != null)
+        s.next.poison();
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+    } catch (RuntimeException e) {
+      fail(e);
+    } finally {
+      finish();
+    }
+  }
+
+  private void fail(Throwable t) {
+    if (failure.compareAndSet(null, t))
+      cancel(); // despierta a los que están bloqueados en put/take
+  }
+
+  private void finish() {
+    done.countDown();
+    if (done.getCount() == 0)
+      endNanos = System.nanoTime();
+  }
+
+  /** Construye el pipeline etapa por etapa; T es el tipo que sale de la última etapa añadida. */
+  public static final class Builder<T> {
+    private final String sourceName;
+    private final Source<?> source;
+    private final List<Stage> stages;
+
+    private Builder(String sourceName, Source<?> source, List<Stage> stages) {
+      this.sourceName = sourceName;
+      this.source = source;
+      this.stages = stages;
+    }
+
+    /**
+     * Añade una etapa intermedia. Si {@code fn} devuelve {@code null} el
+     * elemento no sigue a la etapa siguiente.
+     */
+    @SuppressWarnings("unchecked")
+    public <R> Builder<R> stage(String name, int parallelism, int capacity, Function<? super T, ? extends R> fn) {
+      add(new Stage(name, parallelism, capacity, (Function<Object, Object>) fn));
+      return new Builder<>(sourceName, source, stages);
+    }
+
+    /** Añade la etapa final y devuelve el pipeline listo para {@link Pipeline#start()}. */
+    public Pipeline sink(String name, int parallelism, int capacity, java.util.function.Consumer<? super T> sink) {
+      stage(name, parallelism, capacity, v -> {
+        sink.accept(v);
+        return null;
+      });
+      return new Pipeline(sourceName, source, stages);
+    }
+
+    private void add(Stage s) {
+      if (!stages.isEmpty())
+        stages.get(stages.size() - 1).next = s;
+      stages.add(s);
+    }
+  }
+
+  private static final class Stage {
+    final String name;
+    final int parallelism;
+    final BoundedBuffer<Object> input;
+    final Function<Object, Object> fn;
+    final LongAdder processed = new LongAdder();
+    final AtomicInteger alive;
+    Stage next;
+
+    Stage(String name, int parallelism, int capacity, Function<Object, Object> fn) {
+      if (parallelism <= 0)
+        throw new IllegalArgumentException("parallelism must be > 0");
+      this.name = name;
+      this.parallelism = parallelism;
+      this.input = new BoundedBuffer<>(capacity);
+      this.fn = fn;
+      this.alive = new AtomicInteger(parallelism);
+    }
+
+    void poison() throws InterruptedException {
+      for (int i = 0; i < parallelism; i++)
+        input.put(POISON);
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package edu.eci.arsw.pc;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Demo del {@link Pipeline} con la carga real: parse, enrich, aggregate, sink.
+ * El enrich simula una consulta lenta (-DenrichMicros); subir -Denrich reparte
+ * ese costo y mueve el cuello de botella a otra etapa.
+ */
+public final class PipelineApp {
+  private PipelineApp() {
+  }
+
+  record Event(String user, long amount) {
+  }
+
+  record Enriched(String user, String region, long amount) {
+  }
+
+  public static void main(String[] args) throws Exception {
+    long items = Long.getLong("items", 200_000L);
+    int capacity = Integer.getInteger("capacity", 256);
+    int parse = Integer.getInteger("parse", 1);
+    int enrich = Integer.getInteger("enrich", 2);
+    int aggregate = Integer.getInteger("aggregate", 1);
+    long enrichMicros = Long.getLong("enrichMicros", 20L);
+
+    System.out.printf("PipelineApp items=%d capacity=%d parse=%d enrich=%d aggregate=%d enrichMicros=%d%n",
+        items, capacity, parse, enrich, aggregate, enrichMicros);
+
+    String[] regions = {"norte", "sur", "este", "oeste"};
+    Map<String, LongAdder> totals = new ConcurrentHashMap<>();
+    LongAdder sunk = new LongAdder();
+    AtomicLong seq = new AtomicLong();
+
+    Pipeline pipeline = Pipeline.<String>from("source", () -> {
+      long i = seq.getAndIncrement();
+      return i < items ? "user-" + (i % 1000) + "," + (i % 97) : null;
+    })
+        .stage("parse", parse, capacity, line -> {
+          int comma = line.indexOf(',');
+          return new Event(line.substring(0, comma), Long.parseLong(line.substring(comma + 1)));
+        })
+        .stage("enrich", enrich, capacity, e -> {
+          if (enrichMicros > 0)
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(enrichMicros)); // consulta remota simulada
+          return new Enriched(e.user(), regions[Math.floorMod(e.user().hashCode(), regions.length)], e.amount());
+        })
+        .stage("aggregate", aggregate, capacity, e -> {
+          totals.computeIfAbsent(e.region(), r -> new LongAdder()).add(e.amount());
+          return e;
+        })
+        .sink("sink", 1, capacity, e -> sunk.increment());
+
+    pipeline.start();
+    while (!pipeline.isDone()) {
+      Thread.sleep(1000);
+      pipeline.stats().forEach(System.out::println);
+      StageStats slow = pipeline.bottleneck();
+      System.out.println("bottleneck=" + (slow == null ? "-" : slow.name()));
+      System.out.println();
+    }
+
+    System.out.println("Final:");
+    pipeline.await().forEach(System.out::println);
+    System.out.println("Sunk=" + sunk.sum() + " totals=" + totals);
+  }
+}
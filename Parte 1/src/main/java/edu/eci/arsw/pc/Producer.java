@@ -1,17 +1,42 @@
 package edu.eci.arsw.pc;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
 public final class Producer implements Runnable {
   private final AtomicLong counter;
   private final long delayMs;
-  private final Object queue; // BusySpinQueue<?> or BoundedBuffer<?> explicado en el doc
+  private final int batchSize; // > 1 usa putAll
+  // Exactamente uno de los dos: la cola se elige una vez en PCApp
+  private final BlockingChannel<Long> channel;
+  private final LongBoundedBuffer longs;
   private volatile boolean running = true;
 
-  public Producer(Object queue, AtomicLong counter, long delayMs) {
-    this.queue = queue;
+  public Producer(BlockingChannel<Long> channel, AtomicLong counter, long delayMs) {
+    this(channel, counter, delayMs, 1);
+  }
+
+  public Producer(BlockingChannel<Long> channel, AtomicLong counter, long delayMs, int batchSize) {
+    this(channel, null, counter, delayMs, batchSize);
+  }
+
+  /** Productor sobre la cola de {@code long} primitivos: no hace boxing. */
+  public Producer(LongBoundedBuffer longs, AtomicLong counter, long delayMs, int batchSize) {
+    this(null, longs, counter, delayMs, batchSize);
+  }
+
+  private Producer(BlockingChannel<Long> channel, LongBoundedBuffer longs, AtomicLong counter, long delayMs,
+      int batchSize) {
+    if (batchSize <= 0)
+      throw new IllegalArgumentException("batchSize must be > 0");
+    if ((channel == null) == (longs == null))
+      throw new IllegalArgumentException("exactly one queue is required");
+    this.channel = channel;
+    this.longs = longs;
     this.counter = counter;
     this.delayMs = delayMs;
+    this.batchSize = batchSize;
   }
 
   public void stop() {
@@ -20,25 +45,56 @@ public final class Producer implements Runnable {
 
   @Override
   public void run() {
-    long i = 0;
     try {
-      while (running) {
-        if (queue instanceof BusySpinQueue<?> sp) {
-          @SuppressWarnings("unchecked")
-          BusySpinQueue<Long> q = (BusySpinQueue<Long>) sp;
-          q.put(i);
-        } else if (queue instanceof BoundedBuffer<?> bb) {
-          @SuppressWarnings("unchecked")
-          BoundedBuffer<Long> q = (BoundedBuffer<Long>) bb;
-          q.put(i);
-        }
-        counter.incrementAndGet();
-        if (delayMs > 0)
-          Thread.sleep(delayMs);
-        i++;
-      }
+      if (longs != null)
+        runLongs();
+      else if (batchSize > 1)
+        runBatched();
+      else
+        runSingle();
     } catch (InterruptedException ie) {
       Thread.currentThread().interrupt();
     }
   }
+
+  private void runSingle() throws InterruptedException {
+    long i = 0;
+    while (running) {
+      channel.put(i++);
+      counter.incrementAndGet();
+      if (delayMs > 0)
+        Thread.sleep(delayMs);
+    }
+  }
+
+  private void runBatched() throws InterruptedException {
+    long i = 0;
+    List<Long> batch = new ArrayList<>(batchSize);
+    while (running) {
+      batch.clear();
+      for (int k = 0; k < batchSize; k++)
+        batch.add(i++);
+      channel.putAll(batch); // un lote por adquisición del lock
+      counter.addAndGet(batchSize);
+      if (delayMs > 0)
+        Thread.sleep(delayMs);
+    }
+  }
+
+  private void runLongs() throws InterruptedException {
+    long i = 0;
+    long[] batch = new long[batchSize];
+    while (running) {
+      if (batchSize == 1) {
+        longs.put(i++); // sin boxing
+      } else {
+        for (int k = 0; k < batchSize; k++)
+          batch[k] = i++;
+        longs.putAll(batch, 0, batchSize);
+      }
+      counter.addAndGet(batchSize);
+      if (delayMs > 0)
+        Thread.sleep(delayMs);
+    }
+  }
 }
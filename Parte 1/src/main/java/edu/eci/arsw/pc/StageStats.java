@@ -0,0 +1,21 @@
+package edu.eci.arsw.pc;
+
+/**
+ * Foto de una etapa del {@link Pipeline}. La cola es la de entrada de la etapa:
+ * si está llena y la de la etapa siguiente vacía, esta etapa es el cuello de
+ * botella.
+ */
+public record StageStats(String name, int parallelism, long processed, int queueDepth, int queueCapacity,
+    double throughputPerSec) {
+
+  /** Ocupación de la cola de entrada entre 0 y 1 (0 para la fuente, que no tiene cola). */
+  public double fillRatio() {
+    return queueCapacity == 0 ? 0.0 : queueDepth / (double) queueCapacity;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%-10s x%-2d processed=%-9d queue=%d/%d (%.0f%%) rate=%.0f/s",
+        name, parallelism, processed, queueDepth, queueCapacity, fillRatio() * 100, throughputPerSec);
+  }
+}
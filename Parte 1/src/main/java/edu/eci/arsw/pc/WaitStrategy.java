@@ -0,0 +1,82 @@
+package edu.eci.arsw.pc;
+
+import java.util.Locale;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Qué hace un hilo tras un intento fallido de put/take en una cola sin
+ * monitor. Cambia CPU por latencia: girar da la entrega más rápida pero
+ * consume un núcleo completo; estacionar libera el núcleo pero tarda más en
+ * reaccionar.
+ */
+@FunctionalInterface
+public interface WaitStrategy {
+
+  /**
+   * Espera después del intento fallido número {@code attempt} (empieza en 0).
+   *
+   * @throws InterruptedException si el hilo fue interrumpido
+   */
+  void idle(int attempt) throws InterruptedException;
+
+  /** Giro puro con {@link Thread#onSpinWait()}: mínima latencia, 100% de CPU. */
+  static WaitStrategy busySpin() {
+    return attempt -> {
+      checkInterrupt();
+      Thread.onSpinWait();
+    };
+  }
+
+  /** Gira {@code spins} veces y después cede el procesador en cada intento. */
+  static WaitStrategy yielding(int spins) {
+    return attempt -> {
+      checkInterrupt();
+      if (attempt < spins)
+        Thread.onSpinWait();
+      else
+        Thread.yield();
+    };
+  }
+
+  /** Se estaciona siempre {@code parkNanos}: poca CPU, más latencia. */
+  static WaitStrategy parking(long parkNanos) {
+    return attempt -> {
+      checkInterrupt();
+      LockSupport.parkNanos(parkNanos);
+    };
+  }
+
+  /**
+   * Gira {@code spins} veces, cede el procesador {@code yields} veces y luego
+   * se estaciona con pausas que crecen exponencialmente hasta {@code maxParkNanos}.
+   */
+  static WaitStrategy hybrid(int spins, int yields, long maxParkNanos) {
+    return attempt -> {
+      checkInterrupt();
+      if (attempt < spins) {
+        Thread.onSpinWait();
+      } else if (attempt < spins + yields) {
+        Thread.yield();
+      } else {
+        int step = Math.min(20, attempt - spins - yields);
+        LockSupport.parkNanos(Math.min(maxParkNanos, 1_000L << step));
+      }
+    };
+  }
+
+  /** Resuelve {@code spin|yield|park|hybrid} (propiedad {@code -Dwait=}). */
+  static WaitStrategy named(String name) {
+    return switch (name.toLowerCase(Locale.ROOT)) {
+      case "spin" -> busySpin();
+      case "yield" -> yielding(1_000);
+      case "park" -> parking(50_000);
+      case "hybrid" -> hybrid(10_000, 100, 100_000);
+      default -> throw new IllegalArgumentException("Unknown wait strategy: " + name);
+    };
+  }
+
+  private static void checkInterrupt() throws InterruptedException {
+    if (Thread.interrupted())
+      throw new InterruptedException();
+  }
+}
@@ -18,33 +18,196 @@ package co.eci.blacklist.api;
 
 import co.eci.blacklist.api.dto.CheckResponseDTO;
 import co.eci.blacklist.application.BlacklistService;
+import co.eci.blacklist.domain.Ipv4;
+import co.eci.blacklist.domain.MatchResult;
+import co.eci.blacklist.domain.Policies;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/v1/blacklist")
 public class BlacklistController {
 
     private final BlacklistService service;
+    private final ObjectMapper mapper;
+    private final int batchChunkSize;
+    private static final long ASYNC_GRACE_MS = 1_000;
     private static final String IPV4_REGEX = "^((25[0-5]|2[0-4]\\\\d|[01]?\\\\d\\\\d?)\\\\.){3}(25[0-5]|2[0-4]\\\\d|[01]?\\\\d\\\\d?)$";
 
-    public BlacklistController(BlacklistService service) {
+    public BlacklistController(BlacklistService service, ObjectMapper mapper, Policies policies) {
         this.service = service;
+        this.mapper = mapper;
+        this.batchChunkSize = Math.max(1, policies.getBatchChunkSize());
     }
 
+    /**
+     * IPs are parsed into an {@code int} here, once; everything downstream works on the packed address.
+     */
     @GetMapping("/check")
     public ResponseEntity<CheckResponseDTO> check(
             // @RequestParam @Pattern(regexp = IPV4_REGEX, message = "ip must be a valid
             // IPv4 address") String ip,
             @RequestParam String ip,
             @RequestParam(defaultValue = "0") @Min(0) @Max(10_000) int threads) {
-        int effectiveThreads = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors());
-        var res = service.check(ip, effectiveThreads);
+        var res = service.check(parseIp(ip), effectiveThreads(threads));
         return ResponseEntity.ok(CheckResponseDTO.from(res));
     }
+
+    /**
+     * Async check that frees the servlet thread while workers scan. Past
+     * {@code deadlineMs} the workers are stopped and a partial result is
+     * returned ({@code partial=true}, {@code checkedServers} tells how far it
+     * got). If the client disconnects, the scan is cancelled.
+     */
+    @GetMapping("/check/async")
+    public DeferredResult<ResponseEntity<CheckResponseDTO>> checkAsync(
+            @RequestParam String ip,
+            @RequestParam(defaultValue = "0") @Min(0) @Max(10_000) int threads,
+            @RequestParam(defaultValue = "2000") @Min(1) @Max(60_000) long deadlineMs) {
+        var future = service.checkAsync(parseIp(ip), effectiveThreads(threads), Duration.ofMillis(deadlineMs));
+        // Red de seguridad: si el plazo propio no alcanzó a responder, el contenedor corta igual
+        var deferred = new DeferredResult<ResponseEntity<CheckResponseDTO>>(deadlineMs + ASYNC_GRACE_MS);
+        deferred.onTimeout(() -> future.cancel(true));
+        deferred.onError(e -> future.cancel(true)); // p. ej. el cliente cerró la conexión
+        future.whenComplete((res, err) -> {
+            if (err == null) {
+                deferred.setResult(ResponseEntity.ok(CheckResponseDTO.from(res)));
+            } else {
+                deferred.setErrorResult(err instanceof CompletionException && err.getCause() != null
+                        ? err.getCause() : err);
+            }
+        });
+        return deferred;
+    }
+
+    /**
+     * Bulk check: one IP per line in, one JSON result per line (NDJSON) out.
+     * IPs are read, checked and written in chunks, so memory stays bounded no
+     * matter how large the batch is, and clients see results as they come. A
+     * line that is not an IPv4 address gets an {@code {"ip", "error"}} line in
+     * its place instead of failing the whole stream. The status is already
+     * sent when a later chunk is rejected for lack of worker budget, so each
+     * IP of that chunk also gets an error line and the stream goes on.
+     */
+    @PostMapping(value = "/check/batch", consumes = MediaType.TEXT_PLAIN_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> checkBatch(
+            InputStream body,
+            @RequestParam(defaultValue = "0") @Min(0) @Max(10_000) int threads) {
+        int effectiveThreads = effectiveThreads(threads);
+        StreamingResponseBody stream = out -> {
+            var reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+            int[] chunk = new int[batchChunkSize];
+            int size = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String ip = line.trim();
+                if (ip.isEmpty()) {
+                    continue;
+                }
+                int packed;
+                try {
+                    packed = parseIp(ip);
+                } catch (InvalidIpException e) {
+                    // Se vacía el bloque pendiente para que el error salga en su lugar
+                    writeChunk(chunk, size, effectiveThreads, out);
+                    size = 0;
+                    writeError(ip, e.getMessage(), out);
+                    continue;
+                }
+                chunk[size++] = packed;
+                if (size == batchChunkSize) {
+                    writeChunk(chunk, size, effectiveThreads, out);
+                    size = 0;
+                }
+            }
+            writeChunk(chunk, size, effectiveThreads, out);
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(stream);
+    }
+
+    private void writeChunk(int[] chunk, int size, int threads, OutputStream out) throws IOException {
+        if (size == 0) {
+            return;
+        }
+        List<MatchResult> results;
+        try {
+            results = service.checkBatch(Arrays.copyOf(chunk, size), threads);
+        } catch (RejectedExecutionException e) {
+            // Ya se respondió 200: el 503 no puede salir, se informa IP por IP
+            for (int i = 0; i < size; i++) {
+                writeError(Ipv4.format(chunk[i]), e.getMessage(), out);
+            }
+            out.flush();
+            return;
+        }
+        for (MatchResult r : results) {
+            out.write(mapper.writeValueAsBytes(CheckResponseDTO.from(r)));
+            out.write('\n');
+        }
+        out.flush(); // cada bloque sale al cliente apenas está listo
+    }
+
+    private void writeError(String ip, String message, OutputStream out) throws IOException {
+        out.write(mapper.writeValueAsBytes(Map.of("ip", ip, "error", String.valueOf(message))));
+        out.write('\n');
+    }
+
+    /**
+     * Boundary parse: a malformed address becomes {@link InvalidIpException},
+     * so an {@code IllegalArgumentException} from deeper layers is not mistaken for bad input.
+     */
+    private static int parseIp(String ip) {
+        try {
+            return Ipv4.parse(ip);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidIpException(e.getMessage(), e);
+        }
+    }
+
+    private static int effectiveThreads(int threads) {
+        return threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * The {@code ip} parameter is not an IPv4 address.
+     */
+    @ExceptionHandler(InvalidIpException.class)
+    public ResponseEntity<Map<String, String>> badRequest(InvalidIpException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+
+    /**
+     * The global worker budget is exhausted: ask the client to back off instead of queueing.
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Map<String, String>> overloaded(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(Map.of("error", e.getMessage()));
+    }
 }
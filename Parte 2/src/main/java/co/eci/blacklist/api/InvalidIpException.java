@@ -0,0 +1,13 @@
+package co.eci.blacklist.api;
+
+/**
+ * A request carried an {@code ip} that is not an IPv4 address; answered with 400.
+ */
+public class InvalidIpException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidIpException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -10,9 +10,10 @@ public record CheckResponseDTO(
         int checkedServers,
         int totalServers,
         long elapsedMs,
-        int threads
+        int threads,
+        boolean partial
 ) {
     public static CheckResponseDTO from(MatchResult r) {
-        return new CheckResponseDTO(r.ip(), r.trustworthy(), r.matches(), r.checkedServers(), r.totalServers(), r.elapsedMs(), r.threads());
+        return new CheckResponseDTO(r.ip(), r.trustworthy(), r.matches(), r.checkedServers(), r.totalServers(), r.elapsedMs(), r.threads(), r.partial());
     }
 }
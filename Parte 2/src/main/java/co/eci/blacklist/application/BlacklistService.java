@@ -1,24 +1,130 @@
 package co.eci.blacklist.application;
 
 import co.eci.blacklist.domain.BlacklistChecker;
+import co.eci.blacklist.domain.Ipv4;
 import co.eci.blacklist.domain.MatchResult;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import org.springframework.stereotype.Service;
 
 @Service
 public class BlacklistService {
     private final BlacklistChecker checker;
+    private final CheckResultCache cache;
+    private final SingleFlight<Flight, MatchResult> inFlight = new SingleFlight<>();
+    private final Timer scanLatency;
 
-    public BlacklistService(BlacklistChecker checker) {
+    public BlacklistService(BlacklistChecker checker, CheckResultCache cache, MeterRegistry registry) {
         this.checker = checker;
+        this.cache = cache;
+        this.scanLatency = Timer.builder("blacklist.check.latency")
+                .description("Time of checks that scanned the servers (cache hits excluded)")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry);
+        registerMetrics(registry);
     }
 
-    public MatchResult check(String ip, int threads) {
+    /**
+     * Concurrent checks of the same IP share one scan, but only within a cache
+     * generation: a check that arrives after a {@code seed}/{@code clear} of the
+     * IP starts a fresh scan instead of joining one that began before it.
+     * Checks that had already joined the older scan still get its result; they
+     * overlapped the change, so either verdict is valid for them.
+     *
+     * @param ip address packed by {@link Ipv4#parse}
+     */
+    public MatchResult check(int ip, int threads) {
+        MatchResult cached = cache.get(ip);
+        if (cached != null) {
+            return cached;
+        }
+        // Se lee antes de escanear: si un seed/clear llega en medio, el resultado no se guarda
+        long generation = cache.generation(ip);
         try {
-            return checker.checkHost(ip, threads);
+            // Chequeos simultáneos de la misma IP y generación comparten un solo escaneo
+            return inFlight.execute(new Flight(ip, generation), () -> {
+                long t0 = System.nanoTime();
+                MatchResult result = checker.checkHost(ip, threads);
+                scanLatency.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+                // Un veredicto provisional (servidores que no respondieron) no se guarda
+                if (!result.partial()) {
+                    cache.put(ip, result, generation);
+                }
+                return result;
+            });
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new IllegalStateException("Interrumpted while checking blacklists",e);
         }
         
     }
+
+    /**
+     * Non-blocking check bounded by {@code deadline}. Cache hits complete
+     * immediately; partial results are returned but never cached. Cancelling the
+     * returned future stops the scan.
+     */
+    public CompletableFuture<MatchResult> checkAsync(int ip, int threads, Duration deadline) {
+        MatchResult cached = cache.get(ip);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        long generation = cache.generation(ip);
+        long t0 = System.nanoTime();
+        CompletableFuture<MatchResult> scan = checker.checkHostAsync(ip, threads, deadline);
+        scan.thenAccept(result -> {
+            scanLatency.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+            if (!result.partial()) {
+                cache.put(ip, result, generation);
+            }
+        });
+        return scan;
+    }
+
+    /**
+     * Checks a chunk of IPs in one pass. Bypasses the cache: a batch scan costs
+     * about the same as a lookup and would otherwise evict the hot single-IP entries.
+     */
+    public List<MatchResult> checkBatch(int[] ips, int threads) {
+        try {
+            return checker.checkHosts(ips, threads);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpted while checking blacklists",e);
+        }
+    }
+
+    /** Coalescing key: an IP as of one cache generation. */
+    private record Flight(int ip, long generation) {
+    }
+
+    private void registerMetrics(MeterRegistry registry) {
+        FunctionCounter.builder("blacklist.checks.scans", inFlight, SingleFlight::executed)
+                .description("Full scans run").register(registry);
+        FunctionCounter.builder("blacklist.checks.coalesced", inFlight, SingleFlight::coalesced)
+                .description("Checks that joined an in-flight scan of the same IP").register(registry);
+        FunctionCounter.builder("blacklist.remote.hedged", checker, BlacklistChecker::hedgedQueries)
+                .description("Extra server queries sent because the first was slow or failed").register(registry);
+        FunctionCounter.builder("blacklist.remote.failed", checker, BlacklistChecker::failedQueries)
+                .description("Server queries that got no answer, hedges included").register(registry);
+        FunctionCounter.builder("blacklist.cache.requests", cache, CheckResultCache::hits)
+                .tag("result", "hit").description("Checks answered from the result cache").register(registry);
+        FunctionCounter.builder("blacklist.cache.requests", cache, CheckResultCache::misses)
+                .tag("result", "miss").description("Checks that had to scan the servers").register(registry);
+        FunctionCounter.builder("blacklist.cache.evictions", cache, CheckResultCache::evictions)
+                .tag("cause", "size").register(registry);
+        FunctionCounter.builder("blacklist.cache.evictions", cache, CheckResultCache::expirations)
+                .tag("cause", "expired").register(registry);
+        FunctionCounter.builder("blacklist.cache.evictions", cache, CheckResultCache::invalidations)
+                .tag("cause", "invalidated").register(registry);
+        Gauge.builder("blacklist.cache.size", cache, CheckResultCache::size)
+                .description("Cached check results").register(registry);
+    }
 }
@@ -0,0 +1,174 @@
+package co.eci.blacklist.application;
+
+import co.eci.blacklist.domain.MatchResult;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded result cache keyed by the packed IPv4 address, with TTL and LRU eviction.
+ * <p>
+ * The key space is split into stripes, each an access-ordered
+ * {@link LinkedHashMap} behind its own lock, so concurrent checks of different
+ * IPs rarely contend. Expired entries are dropped when looked up or when they
+ * become the least recently used. Every stripe carries a generation that is bumped when
+ * one of its IPs is invalidated. A check reads the generation before scanning
+ * and stores its result only if the generation is unchanged. Without that, a
+ * scan that started before a {@code seed}/{@code clear} could store a stale
+ * result after the invalidation. The fence only covers stored results;
+ * callers that coalesce scans key them by generation too, so a later caller
+ * never joins a scan that started before the invalidation.
+ */
+public class CheckResultCache {
+
+    private static final int STRIPES = 16;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final long ttlNanos;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * @param maxEntries total capacity, spread evenly over the stripes
+     * @param ttlMs      time a result stays valid after it was computed; 0 disables caching
+     */
+    public CheckResultCache(int maxEntries, long ttlMs) {
+        if (maxEntries <= 0 || ttlMs < 0) {
+            throw new IllegalArgumentException("maxEntries must be > 0 and ttlMs >= 0");
+        }
+        int perStripe = Math.max(1, (maxEntries + STRIPES - 1) / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+        this.ttlNanos = ttlMs * 1_000_000L;
+    }
+
+    /**
+     * @return the cached result, or {@code null} if absent or expired
+     */
+    public MatchResult get(int ip) {
+        Stripe s = stripeFor(ip);
+        synchronized (s) {
+            Entry e = s.get(ip);
+            if (e != null && System.nanoTime() - e.expiresAt() >= 0) {
+                s.remove(ip);
+                expirations.increment();
+                e = null;
+            }
+            if (e == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return e.result();
+        }
+    }
+
+    /**
+     * Token to pass to {@link #put}; read it before computing the result.
+     */
+    public long generation(int ip) {
+        Stripe s = stripeFor(ip);
+        synchronized (s) {
+            return s.generation;
+        }
+    }
+
+    /**
+     * Stores a result unless the IP's stripe was invalidated since {@code generation} was read.
+     *
+     * @return whether the result was stored
+     */
+    public boolean put(int ip, MatchResult result, long generation) {
+        Stripe s = stripeFor(ip);
+        synchronized (s) {
+            if (ttlNanos == 0 || s.generation != generation) {
+                return false;
+            }
+            s.put(ip, new Entry(result, System.nanoTime() + ttlNanos));
+            return true;
+        }
+    }
+
+    /**
+     * Drops the IP's entry and fences off in-flight computations of its stripe.
+     */
+    public void invalidate(int ip) {
+        Stripe s = stripeFor(ip);
+        synchronized (s) {
+            s.generation++;
+            if (s.remove(ip) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    public int size() {
+        int n = 0;
+        for (Stripe s : stripes) {
+            synchronized (s) {
+                n += s.size();
+            }
+        }
+        return n;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /** Entries dropped because their stripe was full. */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public long expirations() {
+        return expirations.sum();
+    }
+
+    public long invalidations() {
+        return invalidations.sum();
+    }
+
+    private Stripe stripeFor(int ip) {
+        return stripes[stripeIndex(ip)];
+    }
+
+    /** Stripe of an IP; IPs sharing one also share its generation and LRU order. */
+    static int stripeIndex(int ip) {
+        int h = ip * 0x9E3779B9; // IPs de una misma subred caen en franjas distintas
+        return (h >>> 28) & (STRIPES - 1);
+    }
+
+    private record Entry(MatchResult result, long expiresAt) {
+    }
+
+    /** Access-ordered map: the eldest entry is the least recently used. */
+    private final class Stripe extends LinkedHashMap<Integer, Entry> {
+        private static final long serialVersionUID = 1L;
+
+        private final int maxEntries;
+        private long generation;
+
+        Stripe(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+            if (size() > maxEntries) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package co.eci.blacklist.application;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request coalescing: while a computation for a key is running, further callers
+ * for the same key wait for it and share its result instead of starting their
+ * own. The key is forgotten as soon as the computation ends, so results are not
+ * cached here.
+ *
+ * @param <K> key type
+ * @param <V> result type
+ */
+public class SingleFlight<K, V> {
+
+    /** Computation run by the first caller of a key. */
+    @FunctionalInterface
+    public interface Loader<V> {
+        V load() throws InterruptedException;
+    }
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Runs {@code loader} unless a computation for {@code key} is already in
+     * flight, in which case waits for that one.
+     *
+     * @throws InterruptedException if this caller is interrupted, or the shared computation was
+     */
+    public V execute(K key, Loader<V> loader) throws InterruptedException {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            coalesced.increment();
+            return await(leader);
+        }
+        executed.increment();
+        try {
+            V value = loader.load();
+            mine.complete(value);
+            return value;
+        } catch (InterruptedException | RuntimeException | Error e) {
+            mine.completeExceptionally(e); // los que esperaban reciben el mismo error
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /** Computations actually run. */
+    public long executed() {
+        return executed.sum();
+    }
+
+    /** Callers that shared another caller's computation: the work saved. */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> leader) throws InterruptedException {
+        try {
+            return leader.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            if (cause instanceof Error err) {
+                throw err;
+            }
+            if (cause instanceof InterruptedException) {
+                // Interrumpieron al líder, no a este hilo: no propagar la interrupción
+                throw new IllegalStateException("Shared check was interrupted", cause);
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -1,101 +1,529 @@
 package co.eci.blacklist.domain;
 
-import co.eci.blacklist.infrastructure.HostBlackListsDataSourceFacade;
+import co.eci.blacklist.infrastructure.ServerIndexSet;
 import co.eci.blacklist.labs.part2.ThreadLifecycle;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.time.Duration;
 import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Logger;
 import java.lang.Thread;
 
 public class BlacklistChecker {
 
     private static final Logger logger = Logger.getLogger(BlacklistChecker.class.getName());
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
 
-    private final HostBlackListsDataSourceFacade facade;
+    private final BlacklistDataSource source;
     private final Policies policies;
+    private final ExecutorService workers;
+    private final WorkerBudget budget;
+    // Llamadas a servidores remotos: hilos virtuales aparte para poder lanzar réplicas (hedging)
+    private final ExecutorService remoteCalls = Executors.newVirtualThreadPerTaskExecutor();
+    private final LongAdder hedgedQueries = new LongAdder();
+    private final LongAdder failedQueries = new LongAdder();
 
-    public BlacklistChecker(HostBlackListsDataSourceFacade facade, Policies policies) {
-        this.facade = Objects.requireNonNull(facade);
+    /**
+     * Standalone checker (labs, benchmarks): its own virtual-thread executor and
+     * a budget taken from the policies.
+     */
+    public BlacklistChecker(BlacklistDataSource source, Policies policies) {
+        this(source, policies, Executors.newVirtualThreadPerTaskExecutor(),
+                new WorkerBudget(policies.getMaxInFlightWorkers(), policies.getAdmissionTimeoutMs()));
+    }
+
+    /**
+     * @param workers shared executor the scan tasks run on, owned by the caller
+     * @param budget  global cap on in-flight worker tasks
+     */
+    public BlacklistChecker(BlacklistDataSource source, Policies policies,
+                            ExecutorService workers, WorkerBudget budget) {
+        this.source = Objects.requireNonNull(source);
         this.policies = Objects.requireNonNull(policies);
+        this.workers = Objects.requireNonNull(workers);
+        this.budget = Objects.requireNonNull(budget);
     }
 
+    /**
+     * @throws IllegalArgumentException if {@code ip} is not an IPv4 address
+     */
     public MatchResult checkHost(String ip, int nThreads) throws InterruptedException {
+        return checkHost(Ipv4.parse(ip), nThreads);
+    }
+
+    /**
+     * @param ip address packed by {@link Ipv4#parse}
+     */
+    public MatchResult checkHost(int ip, int nThreads) throws InterruptedException {
         final long start = System.currentTimeMillis();
-        final int totalServers = facade.getRegisteredServersCount();
-        final int threads = Math.max(1, Math.min(nThreads, totalServers));
+        final int totalServers = source.getRegisteredServersCount();
+        Scan scan = new Scan(ip, totalServers);
+        // Admisión: se conceden entre 1 y los hilos pedidos según el presupuesto global
+        final int threads = budget.acquire(Math.max(1, Math.min(nThreads, totalServers)));
+        scan.start(threads); // los permisos pasan a las tareas, que los devuelven al terminar
+        scan.await(NO_DEADLINE);
+        return scan.result(threads, start, false);
+    }
 
+    /**
+     * Non-blocking check with a deadline. The scan is coordinated from a virtual
+     * thread, so the caller's thread is released immediately. When the deadline
+     * passes, or the returned future is cancelled (e.g. the client went away),
+     * every worker is stopped. On a deadline the future completes with what was
+     * scanned so far, marked {@link MatchResult#partial() partial}.
+     *
+     * @param ip       address packed by {@link Ipv4#parse}
+     * @param deadline maximum time for the whole check, admission included: if no
+     *                 worker frees up before it, the future fails with
+     *                 {@code RejectedExecutionException}
+     */
+    public CompletableFuture<MatchResult> checkHostAsync(int ip, int nThreads, Duration deadline) {
+        final long start = System.currentTimeMillis();
+        final long deadlineNanos = System.nanoTime() + deadline.toNanos();
+        final int totalServers = source.getRegisteredServersCount();
+        final CompletableFuture<MatchResult> result = new CompletableFuture<>();
+        Thread.ofVirtual().name("blacklist-check-" + Ipv4.format(ip)).start(() -> {
+            try {
+                Scan scan = new Scan(ip, totalServers);
+                // La espera de admisión también cuenta contra el plazo del cliente
+                int threads = budget.acquireBefore(Math.max(1, Math.min(nThreads, totalServers)), deadlineNanos);
+                scan.start(threads);
+                // Si el cliente cancela, se detienen los workers de inmediato
+                result.whenComplete((r, t) -> {
+                    if (result.isCancelled()) {
+                        scan.cancel();
+                    }
+                });
+                boolean complete = scan.await(deadlineNanos);
+                result.complete(scan.result(threads, start, !complete));
+            } catch (InterruptedException | RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * One parallel scan of an IP over all servers: its workers, their tallies and
+     * the shared early-stop state.
+     */
+    private final class Scan {
+        private final int ip;
+        private final String address; // forma textual: resultado, reportes y consultas remotas
+        private final int totalServers;
         // BLACK_LIST_ALARM_COUNT Viene de policies.
-        final int threshold = Math.max(1, policies.getAlarmCount());
-        // Thread Safe
-        final AtomicInteger found = new AtomicInteger(0);
-        final AtomicInteger checked = new AtomicInteger(0);  
-        final AtomicBoolean stop = new AtomicBoolean(false); 
-        final List<Integer> matches = Collections.synchronizedList(new ArrayList<>());
-
-        final int chunk = (int) Math.ceil(totalServers / (double) threads);
-
-        Thread[] workers = new Thread[threads];
-        for (int t = 0; t < threads;t++){
-            final int startIndex = t * chunk;
-            final int endIndex = Math.min(totalServers, startIndex + chunk);
-            if (startIndex >= endIndex){
-                workers[t] = null;
-                continue;
-            }
-            workers[t] = new Thread(() -> {
-                for (int i = startIndex; i < endIndex && !stop.get(); i++){
-                    boolean hit = facade.isInBlackListServer(i, ip);
-                    checked.incrementAndGet();
-
-                    if (hit) {
-                        int c = found.incrementAndGet();
-                        matches.add(i);
-                        if (c >= threshold) {  // Parada temprana
-                            stop.set(true); // Señal de parada
-                            break;  // Se detiene el hilo
+        private final int threshold = Math.max(1, policies.getAlarmCount());
+        // Compartidos solo para la parada temprana; el resto se cuenta por hilo
+        private final AtomicInteger found = new AtomicInteger(0);
+        private final AtomicBoolean stop = new AtomicBoolean(false);
+        private final ServerIndexSet blacklistedOn; // null: hay que preguntar servidor por servidor
+        private final List<Tally> tallies = new ArrayList<>();
+        private final List<Future<?>> tasks = new ArrayList<>();
+        private final List<Lease> leases = new ArrayList<>();
+
+        Scan(int ip, int totalServers) {
+            this.ip = ip;
+            this.address = Ipv4.format(ip);
+            this.totalServers = totalServers;
+            // Una sola búsqueda en el mapa por chequeo; cada hilo consulta sus rangos en el bitmap
+            this.blacklistedOn = source.localIndex(ip);
+        }
+
+        /**
+         * Submits up to {@code threads} workers. Takes over that many budget
+         * permits: each worker returns its own when it ends (see {@link Lease}),
+         * and permits left without a worker are returned here.
+         */
+        void start(int threads) {
+            try {
+                submitWorkers(threads);
+            } finally {
+                budget.release(threads - leases.size());
+            }
+        }
+
+        private void submitWorkers(int threads) {
+            if ("dynamic".equalsIgnoreCase(policies.getPartitioning())) {
+                // Bloques pequeños desde un cursor compartido: quien termina antes toma más
+                final int chunk = Math.max(1, policies.getDynamicChunkSize());
+                final AtomicInteger cursor = new AtomicInteger(0);
+                for (int t = 0; t < threads; t++) {
+                    Tally tally = new Tally();
+                    submit(tally, () -> {
+                        int from;
+                        while (!stop.get() && (from = cursor.getAndAdd(chunk)) < totalServers) {
+                            int to = Math.min(totalServers, from + chunk);
+                            if (!scanRange(from, to, tally)) {
+                                break;
+                            }
                         }
+                    });
+                }
+            } else {
+                final int chunk = (int) Math.ceil(totalServers / (double) threads);
+                for (int t = 0; t < threads; t++) {
+                    final int startIndex = t * chunk;
+                    final int endIndex = Math.min(totalServers, startIndex + chunk);
+                    if (startIndex >= endIndex) {
+                        continue;
+                    }
+                    Tally tally = new Tally();
+                    submit(tally, () -> scanRange(startIndex, endIndex, tally));
+                }
+            }
+        }
+
+        private void submit(Tally tally, Runnable work) {
+            tallies.add(tally);
+            Lease lease = new Lease();
+            leases.add(lease);
+            try {
+                tasks.add(workers.submit(lease.wrap(work)));
+            } catch (RuntimeException e) {
+                cancel();
+                throw e;
+            }
+        }
+
+        /**
+         * Waits for every worker.
+         *
+         * @return false if the deadline passed or the scan was cancelled first
+         */
+        boolean await(long deadlineNanos) throws InterruptedException {
+            try {
+                for (Future<?> f : tasks) {
+                    if (deadlineNanos == NO_DEADLINE) {
+                        f.get();
+                    } else {
+                        f.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
                     }
                 }
-            }, "Blacklist-Worker" + t);
-            workers[t].start();
+                return true;
+            } catch (TimeoutException | CancellationException e) {
+                return false;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Blacklist worker failed", e.getCause());
+            } finally {
+                // Si algo falló, venció el plazo o nos interrumpieron, no dejar tareas huérfanas
+                cancel();
+            }
         }
 
-        for (Thread w: workers) if (w != null) w.join();
+        /**
+         * Stops the workers. Permits of workers that never started come back
+         * now; a running worker keeps its permit until it actually returns.
+         */
+        void cancel() {
+            stop.set(true);
+            for (Future<?> f : tasks) {
+                f.cancel(true);
+            }
+            for (Lease lease : leases) {
+                lease.revoke();
+            }
+        }
+
+        /**
+         * Scans {@code [from, to)} into the worker's own tally.
+         *
+         * @return false once the alarm count is reached (by this or another worker)
+         */
+        private boolean scanRange(int from, int to, Tally tally) {
+            if (blacklistedOn == null) {
+                return queryRange(from, to, tally);
+            }
+            // Más de threshold aciertos en el rango no cambian el resultado
+            int[] hits = blacklistedOn.positionsInRange(from, to, threshold);
+            for (int i : hits) {
+                if (stop.get()) {
+                    tally.add(i - from);
+                    return false;
+                }
+                int c = found.incrementAndGet();
+                tally.hits.add(i);
+                if (c >= threshold) {  // Parada temprana
+                    stop.set(true); // Señal de parada
+                    tally.add(i + 1 - from);
+                    return false;  // Se detiene el hilo
+                }
+            }
+            tally.add(to - from);
+            return true;
+        }
 
-        boolean trustworthy = found.get() < threshold;
+        /**
+         * Scatter-gather over a source without local index: one (hedged) query
+         * per server. Concurrency comes from the workers scanning in parallel.
+         *
+         * @return false once the alarm count is reached or the scan must stop
+         */
+        private boolean queryRange(int from, int to, Tally tally) {
+            for (int i = from; i < to; i++) {
+                if (stop.get()) {
+                    return false;
+                }
+                Boolean hit;
+                try {
+                    hit = queryHedged(i, address);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt(); // cancelado: plazo vencido o cliente se fue
+                    return false;
+                }
+                if (hit == null) {
+                    tally.fail();
+                    continue;
+                }
+                tally.add(1);
+                if (hit) {
+                    int c = found.incrementAndGet();
+                    tally.hits.add(i);
+                    if (c >= threshold) {  // Parada temprana
+                        stop.set(true);
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
 
-        logger.info("Checked Blacklists :" +checked.get() + " of " + totalServers);
-        if (trustworthy) {
-            facade.reportAsTrustworthy(ip);
-        } else {
-            facade.reportAsNotTrustworthy(ip);
+        /**
+         * Merges the per-worker tallies, logs the check and reports the verdict
+         * to the source. A partial result only reports the IP when the alarm
+         * count was reached anyway; otherwise the verdict is provisional.
+         */
+        MatchResult result(int threads, long start, boolean partial) {
+            MatchResult r = merge(threads, start, partial);
+            logger.info("Checked Blacklists :" + r.checkedServers() + " of " + totalServers
+                    + (r.partial() ? " (partial)" : ""));
+            if (!r.trustworthy()) {
+                source.reportAsNotTrustworthy(address);
+            } else if (!r.partial()) {
+                source.reportAsTrustworthy(address);
+            }
+            return r;
         }
 
-        long elapsed = System.currentTimeMillis() - start;
+        /** Merges the per-worker tallies without logging or reporting. */
+        MatchResult merge(int threads, long start, boolean partial) {
+            // Se combinan los contadores de cada hilo al final
+            int checked = 0;
+            int failed = 0;
+            List<Integer> matches = new ArrayList<>();
+            for (Tally tally : tallies) {
+                checked += tally.checked;
+                failed += tally.failed;
+                matches.addAll(tally.hits);
+            }
+            Collections.sort(matches);
+            boolean trustworthy = matches.size() < threshold;
+            // Servidores que no respondieron: el veredicto tampoco es definitivo
+            partial |= trustworthy && failed > 0;
 
-        return new MatchResult(
-                ip,
-                trustworthy,
-                List.copyOf(matches),
-                checked.get(),
-                totalServers,
-                elapsed,
-                threads
-        );
+            long elapsed = System.currentTimeMillis() - start;
+
+            return new MatchResult(
+                    address,
+                    trustworthy,
+                    List.copyOf(matches),
+                    checked,
+                    totalServers,
+                    elapsed,
+                    threads,
+                    partial
+            );
+        }
     }
-}
 
+    /**
+     * One budget permit held by one worker task. It goes back exactly once: from
+     * the task when it finishes, or from the coordinator if the task had not
+     * started when it was cancelled. A cancelled worker that ignores the
+     * interrupt therefore still counts against the budget until it returns, so
+     * a fixed pool sized to the budget never has more tasks than threads.
+     */
+    private final class Lease {
+        private final AtomicBoolean claimed = new AtomicBoolean(false);
+
+        Runnable wrap(Runnable work) {
+            return () -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    return; // revocada antes de empezar: el permiso ya se devolvió
+                }
+                try {
+                    work.run();
+                } finally {
+                    budget.release(1);
+                }
+            };
+        }
+
+        void revoke() {
+            if (claimed.compareAndSet(false, true)) {
+                budget.release(1);
+            }
+        }
+    }
 
-          
-        
+    /**
+     * Per-worker counters, merged after the join: no shared writes in the scan
+     * loop. Written by its worker only; volatile/concurrent so a coordinator that
+     * gives up on a straggler at the deadline still reads a consistent count.
+     */
+    private static final class Tally {
+        volatile int checked;
+        volatile int failed;
+        final Queue<Integer> hits = new ConcurrentLinkedQueue<>();
 
-        
+        void add(int scanned) {
+            checked = checked + scanned; // un solo escritor
+        }
 
+        void fail() {
+            failed = failed + 1;
+        }
+    }
 
+    /**
+     * Asks one server, hedging if it is slow: when no answer arrives within
+     * {@code hedgeAfterMs} a second identical query is sent and the first
+     * successful answer wins. A primary that fails fast is retried once the
+     * same way. Losing queries are cancelled.
+     *
+     * @return the answer, or {@code null} if no query succeeded
+     */
+    private Boolean queryHedged(int server, String ip) throws InterruptedException {
+        ExecutorCompletionService<Boolean> calls = new ExecutorCompletionService<>(remoteCalls);
+        List<Future<Boolean>> sent = new ArrayList<>(2);
+        sent.add(calls.submit(() -> source.isInBlackListServer(server, ip)));
+        long hedgeAfterMs = policies.getHedgeAfterMs();
+        try {
+            int pending = 1;
+            if (hedgeAfterMs > 0) {
+                Future<Boolean> first = calls.poll(hedgeAfterMs, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    Boolean answer = answer(first);
+                    if (answer != null) {
+                        return answer;
+                    }
+                    pending = 0; // falló rápido: se reintenta una vez
+                }
+                hedgedQueries.increment();
+                sent.add(calls.submit(() -> source.isInBlackListServer(server, ip)));
+                pending++;
+            }
+            for (; pending > 0; pending--) {
+                Boolean answer = answer(calls.take());
+                if (answer != null) {
+                    return answer;
+                }
+            }
+            failedQueries.increment();
+            return null;
+        } finally {
+            for (Future<Boolean> f : sent) {
+                f.cancel(true);
+            }
+        }
+    }
+
+    private static Boolean answer(Future<Boolean> done) throws InterruptedException {
+        try {
+            return done.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof DataSourceUnavailableException) {
+                return null;
+            }
+            throw new IllegalStateException("Blacklist query failed", e.getCause());
+        }
+    }
+
+    /** Remote queries sent because the first one was slow or failed. */
+    public long hedgedQueries() {
+        return hedgedQueries.sum();
+    }
+
+    /** Server queries with no successful answer, hedges included. */
+    public long failedQueries() {
+        return failedQueries.sum();
+    }
+
+    /**
+     * Checks many IPs at once. With a local index each IP costs one lookup and
+     * one range query over all servers that stops at the alarm count, so there
+     * is no per-IP fan-out: the IPs themselves are split across the granted workers.
+     * Unlike single checks, the results are neither logged nor reported to the
+     * source one by one; the whole call logs one summary line at {@code FINE}.
+     *
+     * @param ips      hosts to check, packed by {@link Ipv4#parse}
+     * @param nThreads desired workers, subject to the global budget
+     * @return one result per IP, in input order
+     */
+    public List<MatchResult> checkHosts(int[] ips, int nThreads) throws InterruptedException {
+        if (ips.length == 0) {
+            return List.of();
+        }
+        final int totalServers = source.getRegisteredServersCount();
+        final MatchResult[] results = new MatchResult[ips.length];
+        final int threads = budget.acquire(Math.max(1, Math.min(nThreads, ips.length)));
+        final int chunk = (int) Math.ceil(ips.length / (double) threads);
+        List<Future<?>> tasks = new ArrayList<>(threads);
+        List<Lease> leases = new ArrayList<>(threads);
+        try {
+            for (int from = 0; from < ips.length; from += chunk) {
+                final int startIndex = from;
+                final int endIndex = Math.min(ips.length, from + chunk);
+                Lease lease = new Lease();
+                leases.add(lease);
+                tasks.add(workers.submit(lease.wrap(() -> {
+                    for (int i = startIndex; i < endIndex; i++) {
+                        results[i] = scanAll(ips[i], totalServers);
+                    }
+                })));
+            }
+            for (Future<?> f : tasks) {
+                f.get();
+            }
+            logger.fine(() -> "Checked batch of " + ips.length + " hosts: "
+                    + Arrays.stream(results).filter(r -> !r.trustworthy()).count() + " not trustworthy");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Blacklist worker failed", e.getCause());
+        } finally {
+            for (Future<?> f : tasks) {
+                f.cancel(true);
+            }
+            for (Lease lease : leases) {
+                lease.revoke();
+            }
+            budget.release(threads - leases.size()); // permisos que no llegaron a tener tarea
+        }
+        return Arrays.asList(results);
+    }
+
+    /** Single-threaded check of one IP over every server, stopping at the alarm count. */
+    private MatchResult scanAll(int ip, int totalServers) {
+        final long start = System.currentTimeMillis();
+        Scan scan = new Scan(ip, totalServers);
+        Tally tally = new Tally();
+        scan.tallies.add(tally);
+        scan.scanRange(0, totalServers, tally);
+        return scan.merge(1, start, false); // sin log ni reporte por IP: el lote puede tener cientos de miles
+    }
+}
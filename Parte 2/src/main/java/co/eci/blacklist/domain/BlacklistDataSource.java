@@ -0,0 +1,37 @@
+package co.eci.blacklist.domain;
+
+import co.eci.blacklist.infrastructure.ServerIndexSet;
+
+/**
+ * Source of blacklist answers, one per registered server.
+ * <p>
+ * An in-memory source can hand the checker a {@link #localIndex(int) local
+ * index} and let it answer whole ranges at once. A remote source returns
+ * {@code null} there, and the checker queries each server individually with
+ * scatter-gather and hedging.
+ */
+public interface BlacklistDataSource {
+
+    int getRegisteredServersCount();
+
+    /**
+     * Asks one server whether it blacklists the IP.
+     *
+     * @throws DataSourceUnavailableException if the server did not answer
+     * @throws InterruptedException           if interrupted while waiting for the server
+     */
+    boolean isInBlackListServer(int serverIndex, String ip) throws InterruptedException;
+
+    void reportAsTrustworthy(String ip);
+
+    void reportAsNotTrustworthy(String ip);
+
+    /**
+     * @param ip address packed by {@link Ipv4#parse}
+     * @return every server index blacklisting the IP, or {@code null} if the
+     *         source has no local index and each server must be queried
+     */
+    default ServerIndexSet localIndex(int ip) {
+        return null;
+    }
+}
@@ -0,0 +1,13 @@
+package co.eci.blacklist.domain;
+
+/**
+ * A blacklist server failed to answer a query.
+ */
+public class DataSourceUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DataSourceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,58 @@
+package co.eci.blacklist.domain;
+
+/**
+ * IPv4 addresses packed into an {@code int}, octets in network order:
+ * {@code 1.2.3.4} is {@code 0x01020304}. Addresses from {@code 128.0.0.0} up
+ * are negative as signed ints.
+ */
+public final class Ipv4 {
+
+    private Ipv4() {
+    }
+
+    /**
+     * Parses a dotted-quad address without allocating.
+     *
+     * @param ip address such as {@code 200.24.34.55}
+     * @return the packed address
+     * @throws IllegalArgumentException if {@code ip} is not a dotted-quad IPv4 address
+     */
+    public static int parse(CharSequence ip) {
+        int value = 0;
+        int octets = 0;
+        int octet = -1;
+        for (int i = 0, n = ip.length(); i <= n; i++) {
+            char c = i < n ? ip.charAt(i) : '.';
+            if (c == '.') {
+                if (octet < 0 || ++octets > 4) {
+                    throw invalid(ip);
+                }
+                value = value << 8 | octet;
+                octet = -1;
+            } else if (c >= '0' && c <= '9') {
+                // Sin ceros a la izquierda ("01"), como InetAddress
+                octet = octet < 0 ? c - '0' : octet == 0 ? 256 : octet * 10 + c - '0';
+                if (octet > 255) {
+                    throw invalid(ip);
+                }
+            } else {
+                throw invalid(ip);
+            }
+        }
+        if (octets != 4) {
+            throw invalid(ip);
+        }
+        return value;
+    }
+
+    /**
+     * @return the dotted-quad form of a packed address
+     */
+    public static String format(int ip) {
+        return (ip >>> 24) + "." + (ip >>> 16 & 0xFF) + "." + (ip >>> 8 & 0xFF) + "." + (ip & 0xFF);
+    }
+
+    private static IllegalArgumentException invalid(CharSequence ip) {
+        return new IllegalArgumentException("Invalid IPv4 address: " + ip);
+    }
+}
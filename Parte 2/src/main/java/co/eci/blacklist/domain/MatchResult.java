@@ -2,6 +2,11 @@ package co.eci.blacklist.domain;
 
 import java.util.List;
 
+/**
+ * Outcome of a blacklist check. {@code partial} is set when the check was cut
+ * short by its deadline: {@code checkedServers} then tells how far it got, and
+ * {@code trustworthy} is only provisional unless enough matches were found.
+ */
 public record MatchResult(
         String ip,
         boolean trustworthy,
@@ -9,5 +14,6 @@ public record MatchResult(
         int checkedServers,
         int totalServers,
         long elapsedMs,
-        int threads
+        int threads,
+        boolean partial
 ) {}
@@ -9,6 +9,55 @@ public class Policies {
      */
     private int alarmCount = 5;
 
+    /**
+     * Where checker workers run: {@code virtual} (one virtual thread per task) or
+     * {@code bounded} (a fixed pool of {@link #maxInFlightWorkers} platform threads).
+     */
+    private String workerPool = "virtual";
+
+    /**
+     * Maximum worker tasks in flight across all requests.
+     */
+    private int maxInFlightWorkers = 256;
+
+    /**
+     * How long a request waits for a first worker slot before it is rejected.
+     */
+    private long admissionTimeoutMs = 200;
+
+    /**
+     * Maximum number of IPs whose check result is cached.
+     */
+    private int cacheMaxEntries = 10_000;
+
+    /**
+     * How long a cached check result stays valid; 0 disables the cache.
+     */
+    private long cacheTtlMs = 30_000;
+
+    /**
+     * IPs read, checked and written per chunk by the batch endpoint; bounds its memory use.
+     */
+    private int batchChunkSize = 1_000;
+
+    /**
+     * How servers are split among workers: {@code static} (one equal range per
+     * worker) or {@code dynamic} (workers pull {@link #dynamicChunkSize} servers
+     * at a time from a shared cursor, so skewed data does not leave some idle).
+     */
+    private String partitioning = "static";
+
+    /**
+     * Servers per pull in {@code dynamic} partitioning.
+     */
+    private int dynamicChunkSize = 256;
+
+    /**
+     * With a remote data source, send a second query to a server that has not
+     * answered after this long; 0 disables hedging.
+     */
+    private long hedgeAfterMs = 10;
+
     public int getAlarmCount() {
         return alarmCount;
     }
@@ -16,4 +65,76 @@ public class Policies {
     public void setAlarmCount(int alarmCount) {
         this.alarmCount = alarmCount;
     }
+
+    public String getWorkerPool() {
+        return workerPool;
+    }
+
+    public void setWorkerPool(String workerPool) {
+        this.workerPool = workerPool;
+    }
+
+    public int getMaxInFlightWorkers() {
+        return maxInFlightWorkers;
+    }
+
+    public void setMaxInFlightWorkers(int maxInFlightWorkers) {
+        this.maxInFlightWorkers = maxInFlightWorkers;
+    }
+
+    public long getAdmissionTimeoutMs() {
+        return admissionTimeoutMs;
+    }
+
+    public void setAdmissionTimeoutMs(long admissionTimeoutMs) {
+        this.admissionTimeoutMs = admissionTimeoutMs;
+    }
+
+    public int getCacheMaxEntries() {
+        return cacheMaxEntries;
+    }
+
+    public void setCacheMaxEntries(int cacheMaxEntries) {
+        this.cacheMaxEntries = cacheMaxEntries;
+    }
+
+    public long getCacheTtlMs() {
+        return cacheTtlMs;
+    }
+
+    public void setCacheTtlMs(long cacheTtlMs) {
+        this.cacheTtlMs = cacheTtlMs;
+    }
+
+    public int getBatchChunkSize() {
+        return batchChunkSize;
+    }
+
+    public void setBatchChunkSize(int batchChunkSize) {
+        this.batchChunkSize = batchChunkSize;
+    }
+
+    public String getPartitioning() {
+        return partitioning;
+    }
+
+    public void setPartitioning(String partitioning) {
+        this.partitioning = partitioning;
+    }
+
+    public int getDynamicChunkSize() {
+        return dynamicChunkSize;
+    }
+
+    public void setDynamicChunkSize(int dynamicChunkSize) {
+        this.dynamicChunkSize = dynamicChunkSize;
+    }
+
+    public long getHedgeAfterMs() {
+        return hedgeAfterMs;
+    }
+
+    public void setHedgeAfterMs(long hedgeAfterMs) {
+        this.hedgeAfterMs = hedgeAfterMs;
+    }
 }
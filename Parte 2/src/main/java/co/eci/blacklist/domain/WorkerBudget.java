@@ -0,0 +1,79 @@
+package co.eci.blacklist.domain;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Global admission control for checker workers: caps how many worker tasks are
+ * in flight across all concurrent requests.
+ * <p>
+ * A request asks for the workers it would like and gets as many as are free
+ * right now, at least one. Results stay correct with fewer workers, only the
+ * scan is less parallel. When not even one permit frees up within the
+ * admission timeout, the request is rejected instead of queueing forever.
+ */
+public class WorkerBudget {
+
+    private final int capacity;
+    private final Semaphore permits;
+    private final long admissionTimeoutMs;
+
+    public WorkerBudget(int capacity, long admissionTimeoutMs) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0");
+        }
+        this.capacity = capacity;
+        this.permits = new Semaphore(capacity, true);
+        this.admissionTimeoutMs = admissionTimeoutMs;
+    }
+
+    /**
+     * Reserves between 1 and {@code wanted} worker slots.
+     *
+     * @param wanted desired number of workers
+     * @return number of slots granted, to be handed back with {@link #release(int)}
+     * @throws RejectedExecutionException if no slot frees up within the admission timeout
+     * @throws InterruptedException       if interrupted while waiting
+     */
+    public int acquire(int wanted) throws InterruptedException {
+        return acquire(wanted, TimeUnit.MILLISECONDS.toNanos(admissionTimeoutMs));
+    }
+
+    /**
+     * Like {@link #acquire(int)}, but waits no later than {@code deadlineNanos}
+     * (a {@link System#nanoTime()} value) when that comes before the admission timeout.
+     *
+     * @throws RejectedExecutionException if no slot frees up in time
+     * @throws InterruptedException       if interrupted while waiting
+     */
+    public int acquireBefore(int wanted, long deadlineNanos) throws InterruptedException {
+        long remaining = deadlineNanos - System.nanoTime();
+        return acquire(wanted, Math.max(0, Math.min(TimeUnit.MILLISECONDS.toNanos(admissionTimeoutMs), remaining)));
+    }
+
+    private int acquire(int wanted, long timeoutNanos) throws InterruptedException {
+        if (!permits.tryAcquire(1, timeoutNanos, TimeUnit.NANOSECONDS)) {
+            throw new RejectedExecutionException(
+                    "Worker budget exhausted: " + capacity + " workers already in flight");
+        }
+        // Los extra se toman sin esperar: mejor menos hilos que más cola
+        int extra = Math.min(Math.max(0, wanted - 1), permits.availablePermits());
+        while (extra > 0 && !permits.tryAcquire(extra)) {
+            extra = Math.min(extra - 1, permits.availablePermits());
+        }
+        return 1 + Math.max(0, extra);
+    }
+
+    public void release(int granted) {
+        permits.release(granted);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int inFlight() {
+        return capacity - permits.availablePermits();
+    }
+}
@@ -0,0 +1,301 @@
+package co.eci.blacklist.infrastructure;
+
+import co.eci.blacklist.domain.Ipv4;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Compact binary file of (ip, server) pairs, loaded into the facade through
+ * memory-mapped I/O.
+ * <p>
+ * Layout, big-endian:
+ * <pre>
+ * header  magic "BLDS" | version | registered servers | distinct IPs   (4 ints)
+ *         entries                                                      (long)
+ * entries ip | server                                                  (2 ints each)
+ * </pre>
+ * Entries are sorted by IP and then by server, comparing both as signed ints,
+ * and have no duplicates. Every IP thus occupies one contiguous run, and read
+ * as a single {@code long} the entries are strictly ascending. The loader
+ * splits the file at run boundaries, maps each part and builds the server
+ * sets of its IPs in parallel, with no parsing and no intermediate objects.
+ * Finished sets reach the index in batches, so the loaders contend for its
+ * write lock once per batch rather than once per IP.
+ * Use {@link BlacklistDatasetConverter} to create a file from CSV.
+ */
+public final class BlacklistDataset {
+
+    static final int MAGIC = 0x424C4453; // "BLDS"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 24;
+    static final int ENTRY_BYTES = 8;
+    // Un MappedByteBuffer se indexa con int; margen para no partir una IP al ajustar el corte
+    private static final long MAX_ENTRIES_PER_MAP = Integer.MAX_VALUE / ENTRY_BYTES / 2;
+    // IPs entregadas al índice por adquisición de su lock
+    private static final int BATCH_IPS = 1 << 14;
+
+    private BlacklistDataset() {
+    }
+
+    /**
+     * Outcome of {@link #load}.
+     *
+     * @param entries (ip, server) pairs read
+     * @param ips     distinct IPs loaded
+     * @param parts   file regions mapped and loaded in parallel
+     * @param nanos   wall-clock load time
+     */
+    public record LoadStats(long entries, int ips, int parts, long nanos) {
+    }
+
+    /**
+     * Loads a dataset into the facade, merging with what it already holds, and
+     * sets the facade's server count from the header.
+     *
+     * @param file    dataset written by {@link Writer}
+     * @param facade  facade to fill
+     * @param threads loader threads; the file is split into at least this many parts
+     * @return what was loaded
+     * @throws IOException if the file cannot be read or is not a valid dataset. Entries
+     *                     are validated as they are loaded, so IPs read before a corrupt
+     *                     entry may already be in the facade
+     */
+    public static LoadStats load(Path file, HostBlackListsDataSourceFacade facade, int threads) throws IOException {
+        long t0 = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = readAt(channel, 0, HEADER_BYTES);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a blacklist dataset: " + file);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported dataset version " + version + ": " + file);
+            }
+            int servers = header.getInt();
+            int ips = header.getInt();
+            long entries = header.getLong();
+            if (servers <= 0 || entries < 0 || channel.size() != HEADER_BYTES + entries * ENTRY_BYTES) {
+                throw new IOException("Corrupt or truncated dataset: " + file);
+            }
+            facade.setRegisteredServersCount(servers);
+            facade.ensureCapacity(facade.size() + ips);
+
+            long[] bounds = split(channel, entries, Math.max(1, threads));
+            int parts = bounds.length - 1;
+            List<Future<Integer>> loaded = new ArrayList<>(parts);
+            try (ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, parts)),
+                    Thread.ofPlatform().name("dataset-loader-", 0).daemon().factory())) {
+                for (int p = 0; p < parts; p++) {
+                    long from = bounds[p];
+                    long to = bounds[p + 1];
+                    loaded.add(pool.submit(() -> loadPart(channel, file, from, to, servers, facade)));
+                }
+                int loadedIps = 0;
+                for (Future<Integer> f : loaded) {
+                    loadedIps += f.get();
+                }
+                return new LoadStats(entries, loadedIps, parts, System.nanoTime() - t0);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while loading " + file, e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException io) {
+                    throw io;
+                }
+                throw new IOException("Failed to load " + file, e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Builds the server sets of the IPs in entries {@code [from, to)}. Each entry
+     * is checked against the one before it, the first against the last entry of
+     * the previous part, so together the parts check the whole file.
+     *
+     * @return number of IPs loaded
+     * @throws IOException if a server index is out of range or the entries are not
+     *                     strictly ascending
+     */
+    private static int loadPart(FileChannel channel, Path file, long from, long to, int registeredServers,
+                                HostBlackListsDataSourceFacade facade) throws IOException {
+        if (from == to) {
+            return 0;
+        }
+        long last = from > 0 ? readAt(channel, HEADER_BYTES + (from - 1) * ENTRY_BYTES, ENTRY_BYTES).getLong() : 0;
+        MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY,
+                HEADER_BYTES + from * ENTRY_BYTES, (to - from) * ENTRY_BYTES);
+        int n = (int) (to - from);
+        int[] servers = new int[16];
+        int count = 0;
+        int current = 0;
+        int ips = 0;
+        // Los conjuntos se arman sin lock y se insertan por lotes: un solo lock por lote
+        int batch = (int) Math.min(BATCH_IPS, to - from);
+        int[] keys = new int[batch];
+        ServerIndexSet[] sets = new ServerIndexSet[batch];
+        int pending = 0;
+        for (int i = 0; i < n; i++) {
+            long pair = buf.getLong(i * ENTRY_BYTES);
+            int ip = (int) (pair >>> 32);
+            int server = (int) pair;
+            // Un archivo mal ordenado partiría la corrida de una IP y la cargaría a medias
+            if (server < 0 || server >= registeredServers || (from + i > 0 && pair <= last)) {
+                throw new IOException("Corrupt dataset: entry " + (from + i) + " (" + Ipv4.format(ip) + ","
+                        + server + ") is out of range or out of order: " + file);
+            }
+            last = pair;
+            if (count > 0 && ip != current) {
+                if (pending == batch) {
+                    facade.load(keys, sets, pending);
+                    pending = 0;
+                }
+                keys[pending] = current;
+                sets[pending++] = ServerIndexSet.ofSorted(Arrays.copyOf(servers, count));
+                ips++;
+                count = 0;
+            }
+            current = ip;
+            if (count == servers.length) {
+                servers = Arrays.copyOf(servers, count * 2);
+            }
+            servers[count++] = server;
+        }
+        if (pending == batch) {
+            facade.load(keys, sets, pending);
+            pending = 0;
+        }
+        keys[pending] = current;
+        sets[pending++] = ServerIndexSet.ofSorted(Arrays.copyOf(servers, count));
+        facade.load(keys, sets, pending);
+        return ips + 1;
+    }
+
+    /**
+     * Cuts the entries into parts of similar size. Every cut moves forward to
+     * the start of an IP's run, so each IP is built by exactly one thread.
+     *
+     * @return ascending entry indices, first 0 and last {@code entries}
+     */
+    private static long[] split(FileChannel channel, long entries, int threads) throws IOException {
+        int parts = (int) Math.max(threads, (entries + MAX_ENTRIES_PER_MAP - 1) / MAX_ENTRIES_PER_MAP);
+        long[] bounds = new long[parts + 1];
+        for (int p = 1; p < parts; p++) {
+            long cut = Math.max(bounds[p - 1], entries * p / parts);
+            if (cut > 0 && cut < entries) {
+                int previous = ipAt(channel, cut - 1);
+                while (cut < entries && ipAt(channel, cut) == previous) {
+                    cut++;
+                }
+            }
+            bounds[p] = cut;
+        }
+        bounds[parts] = entries;
+        return bounds;
+    }
+
+    private static int ipAt(FileChannel channel, long entry) throws IOException {
+        return readAt(channel, HEADER_BYTES + entry * ENTRY_BYTES, Integer.BYTES).getInt();
+    }
+
+    private static ByteBuffer readAt(FileChannel channel, long position, int bytes) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(bytes);
+        while (buf.hasRemaining()) {
+            if (channel.read(buf, position + buf.position()) < 0) {
+                throw new IOException("Unexpected end of dataset at byte " + (position + buf.position()));
+            }
+        }
+        return buf.flip();
+    }
+
+    /**
+     * Streams sorted entries to a dataset file; the header is filled in on {@link #close()}.
+     */
+    public static final class Writer implements AutoCloseable {
+        private final FileChannel channel;
+        private final int registeredServers;
+        private final ByteBuffer buf = ByteBuffer.allocateDirect(1 << 20);
+        private long entries;
+        private int ips;
+        private long last = Long.MIN_VALUE;
+
+        /**
+         * @param file              file to create or overwrite
+         * @param registeredServers server count stored in the header; every server index must be below it
+         */
+        public Writer(Path file, int registeredServers) throws IOException {
+            if (registeredServers <= 0) {
+                throw new IllegalArgumentException("registeredServers must be > 0");
+            }
+            this.registeredServers = registeredServers;
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            channel.position(HEADER_BYTES);
+        }
+
+        /**
+         * Appends one entry.
+         *
+         * @throws IllegalArgumentException if the server index is out of range or the
+         *                                  entry does not come strictly after the previous one
+         */
+        public void add(int ip, int server) throws IOException {
+            if (server < 0 || server >= registeredServers) {
+                throw new IllegalArgumentException("Server index out of range: " + server);
+            }
+            long pair = (long) ip << 32 | server;
+            if (entries > 0 && pair <= last) {
+                throw new IllegalArgumentException("Entries must be sorted and distinct: "
+                        + Ipv4.format(ip) + "," + server);
+            }
+            if (entries == 0 || (int) (last >>> 32) != ip) {
+                ips++;
+            }
+            last = pair;
+            entries++;
+            if (!buf.hasRemaining()) {
+                flush();
+            }
+            buf.putLong(pair);
+        }
+
+        public long entries() {
+            return entries;
+        }
+
+        public int ips() {
+            return ips;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (channel) {
+                flush();
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                        .putInt(MAGIC).putInt(VERSION).putInt(registeredServers).putInt(ips).putLong(entries)
+                        .flip();
+                while (header.hasRemaining()) {
+                    channel.write(header, header.position());
+                }
+            }
+        }
+
+        private void flush() throws IOException {
+            buf.flip();
+            while (buf.hasRemaining()) {
+                channel.write(buf);
+            }
+            buf.clear();
+        }
+    }
+}
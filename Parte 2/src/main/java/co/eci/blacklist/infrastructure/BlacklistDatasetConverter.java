@@ -0,0 +1,95 @@
+package co.eci.blacklist.infrastructure;
+
+import co.eci.blacklist.domain.Ipv4;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * One-time conversion of a CSV of {@code ip,server} lines into a
+ * {@link BlacklistDataset} file. Blank lines, {@code #} comments and a header
+ * line are skipped. Entries may come in any order and may repeat.
+ * <p>
+ * All entries are sorted in memory, 8 bytes per entry, so 50M entries need
+ * about 400 MB of heap.
+ *
+ * <pre>
+ * java ... BlacklistDatasetConverter blacklist.csv blacklist.bin [registeredServers]
+ * </pre>
+ */
+public final class BlacklistDatasetConverter {
+
+    private BlacklistDatasetConverter() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: BlacklistDatasetConverter <input.csv> <output.bin> [registeredServers]");
+            System.exit(2);
+        }
+        long t0 = System.nanoTime();
+        int servers = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        BlacklistDataset.Writer out = convert(Path.of(args[0]), Path.of(args[1]), servers);
+        System.out.printf("%s: %d entries, %d IPs, %d ms%n", args[1], out.entries(), out.ips(),
+                (System.nanoTime() - t0) / 1_000_000);
+    }
+
+    /**
+     * @param registeredServers server count for the header; 0 derives it from the largest index
+     * @return the closed writer, for its counters
+     */
+    public static BlacklistDataset.Writer convert(Path csv, Path output, int registeredServers) throws IOException {
+        long[] pairs = new long[1 << 16];
+        int n = 0;
+        int maxServer = -1;
+        try (BufferedReader in = Files.newBufferedReader(csv, StandardCharsets.US_ASCII)) {
+            String line;
+            int lineNo = 0;
+            while ((line = in.readLine()) != null) {
+                lineNo++;
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#") || (lineNo == 1 && !Character.isDigit(line.charAt(0)))) {
+                    continue;
+                }
+                int comma = line.indexOf(',');
+                if (comma < 0) {
+                    throw new IOException(csv + ":" + lineNo + ": expected ip,server");
+                }
+                int ip;
+                int server;
+                try {
+                    ip = Ipv4.parse(line.substring(0, comma).strip());
+                    server = Integer.parseInt(line.substring(comma + 1).strip());
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(csv + ":" + lineNo + ": " + e.getMessage(), e);
+                }
+                if (server < 0) {
+                    throw new IOException(csv + ":" + lineNo + ": negative server index");
+                }
+                if (n == pairs.length) {
+                    pairs = Arrays.copyOf(pairs, n * 2);
+                }
+                pairs[n++] = (long) ip << 32 | server;
+                maxServer = Math.max(maxServer, server);
+            }
+        }
+        Arrays.parallelSort(pairs, 0, n);
+
+        int servers = registeredServers > 0 ? registeredServers : Math.max(1, maxServer + 1);
+        if (maxServer >= servers) {
+            throw new IOException("Server index " + maxServer + " >= registeredServers " + servers);
+        }
+        try (BlacklistDataset.Writer out = new BlacklistDataset.Writer(output, servers)) {
+            for (int i = 0; i < n; i++) {
+                // Duplicados quedan contiguos tras ordenar
+                if (i == 0 || pairs[i] != pairs[i - 1]) {
+                    out.add((int) (pairs[i] >>> 32), (int) pairs[i]);
+                }
+            }
+            return out;
+        }
+    }
+}
@@ -1,20 +1,89 @@
 package co.eci.blacklist.infrastructure;
 
+import co.eci.blacklist.application.CheckResultCache;
 import co.eci.blacklist.domain.BlacklistChecker;
+import co.eci.blacklist.domain.BlacklistDataSource;
 import co.eci.blacklist.domain.Policies;
+import co.eci.blacklist.domain.WorkerBudget;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 
 @Configuration
 public class DataSourceConfig {
 
+    private static final Logger logger = Logger.getLogger(DataSourceConfig.class.getName());
+
+    /**
+     * The facade, filled from {@code blacklist.dataset.path} when set. The load
+     * runs before any checker or cache exists, so nothing is served from a
+     * half-built index.
+     */
+    @Bean
+    public HostBlackListsDataSourceFacade hostBlackListsDataSourceFacade(DatasetProperties dataset)
+            throws IOException {
+        HostBlackListsDataSourceFacade facade = HostBlackListsDataSourceFacade.getInstance();
+        if (!dataset.getPath().isBlank()) {
+            int threads = dataset.getLoaderThreads() > 0
+                    ? dataset.getLoaderThreads() : Runtime.getRuntime().availableProcessors();
+            BlacklistDataset.LoadStats stats = BlacklistDataset.load(Path.of(dataset.getPath()), facade, threads);
+            logger.info(String.format("Loaded %d entries for %d IPs from %s in %d ms (%d parts)",
+                    stats.entries(), stats.ips(), dataset.getPath(), stats.nanos() / 1_000_000, stats.parts()));
+        }
+        return facade;
+    }
+
+    /**
+     * What the checker queries: the in-memory facade, or simulated remote servers
+     * on top of it when {@code blacklist.remote.enabled} is set.
+     */
+    @Bean
+    @Primary
+    public BlacklistDataSource blacklistDataSource(HostBlackListsDataSourceFacade facade,
+                                                   RemoteSimulationProperties remote) {
+        return remote.isEnabled() ? new SimulatedRemoteDataSource(facade, remote) : facade;
+    }
+
+    /**
+     * Executor shared by every check; Spring closes it on shutdown.
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService blacklistWorkers(Policies policies) {
+        return switch (policies.getWorkerPool().toLowerCase(Locale.ROOT)) {
+            case "virtual" -> Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("blacklist-worker-", 0).factory());
+            // El presupuesto nunca deja más tareas que hilos, así que la cola del pool no crece
+            case "bounded" -> Executors.newFixedThreadPool(policies.getMaxInFlightWorkers(),
+                    Thread.ofPlatform().name("blacklist-worker-", 0).daemon().factory());
+            default -> throw new IllegalArgumentException(
+                    "Unknown blacklist.worker-pool: " + policies.getWorkerPool());
+        };
+    }
+
+    @Bean
+    public WorkerBudget workerBudget(Policies policies) {
+        return new WorkerBudget(policies.getMaxInFlightWorkers(), policies.getAdmissionTimeoutMs());
+    }
+
     @Bean
-    public HostBlackListsDataSourceFacade hostBlackListsDataSourceFacade() {
-        return HostBlackListsDataSourceFacade.getInstance();
+    public BlacklistChecker blacklistChecker(BlacklistDataSource blacklistDataSource, Policies policies,
+                                             ExecutorService blacklistWorkers, WorkerBudget workerBudget) {
+        return new BlacklistChecker(blacklistDataSource, policies, blacklistWorkers, workerBudget);
     }
 
+    /**
+     * Result cache kept in sync with the facade: seeding or clearing an IP drops its entry.
+     */
     @Bean
-    public BlacklistChecker blacklistChecker(HostBlackListsDataSourceFacade facade, Policies policies) {
-        return new BlacklistChecker(facade, policies);
+    public CheckResultCache checkResultCache(HostBlackListsDataSourceFacade facade, Policies policies) {
+        CheckResultCache cache = new CheckResultCache(policies.getCacheMaxEntries(), policies.getCacheTtlMs());
+        facade.addChangeListener(cache::invalidate);
+        return cache;
     }
 }
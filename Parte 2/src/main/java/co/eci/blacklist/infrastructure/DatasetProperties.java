@@ -0,0 +1,35 @@
+package co.eci.blacklist.infrastructure;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Dataset loaded into the facade at startup, under {@code blacklist.dataset}.
+ */
+@ConfigurationProperties(prefix = "blacklist.dataset")
+public class DatasetProperties {
+    /**
+     * Binary file produced by {@link BlacklistDatasetConverter}; empty keeps only the demo IPs.
+     */
+    private String path = "";
+
+    /**
+     * Threads that build the index in parallel (0 = one per available processor).
+     */
+    private int loaderThreads = 0;
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public int getLoaderThreads() {
+        return loaderThreads;
+    }
+
+    public void setLoaderThreads(int loaderThreads) {
+        this.loaderThreads = loaderThreads;
+    }
+}
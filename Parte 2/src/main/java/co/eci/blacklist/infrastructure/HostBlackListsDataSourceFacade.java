@@ -1,8 +1,10 @@
 package co.eci.blacklist.infrastructure;
 
+import co.eci.blacklist.domain.BlacklistDataSource;
+import co.eci.blacklist.domain.Ipv4;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntConsumer;
 import java.util.logging.Logger;
 
 /**
@@ -10,13 +12,15 @@ import java.util.logging.Logger;
  * In the original lab this class is provided and should not be modified.
  * Here we provide a minimal in-memory implementation suitable for the REST service and tests.
  */
-public class HostBlackListsDataSourceFacade {
+public class HostBlackListsDataSourceFacade implements BlacklistDataSource {
 
     private static final Logger logger = Logger.getLogger(HostBlackListsDataSourceFacade.class.getName());
     private static final HostBlackListsDataSourceFacade INSTANCE = new HostBlackListsDataSourceFacade();
 
-    private final int registeredServersCount;
-    private final ConcurrentMap<String, Set<Integer>> blacklistedByIp = new ConcurrentHashMap<>();
+    private volatile int registeredServersCount;
+    // Clave: IPv4 empaquetada en int. Conjuntos inmutables: los lectores nunca ven uno a medio actualizar
+    private final IntServerIndexMap blacklistedByIp = new IntServerIndexMap();
+    private final List<IntConsumer> changeListeners = new CopyOnWriteArrayList<>();
 
     private HostBlackListsDataSourceFacade() {
         this.registeredServersCount = 10_000;
@@ -29,29 +33,140 @@ public class HostBlackListsDataSourceFacade {
         return INSTANCE;
     }
 
+    @Override
     public int getRegisteredServersCount() {
         return registeredServersCount;
     }
 
+    /**
+     * Sets the number of servers, e.g. from the header of a loaded dataset.
+     */
+    public void setRegisteredServersCount(int registeredServersCount) {
+        if (registeredServersCount <= 0) {
+            throw new IllegalArgumentException("registeredServersCount must be > 0");
+        }
+        this.registeredServersCount = registeredServersCount;
+    }
+
+    /**
+     * As in the original lab, a string that is not an IPv4 address is simply not
+     * blacklisted anywhere: returns {@code false} instead of throwing.
+     */
+    @Override
     public boolean isInBlackListServer(int serverIndex, String ip) {
-        Set<Integer> set = blacklistedByIp.get(ip);
-        return set != null && set.contains(serverIndex);
+        return serverIndexes(ip).contains(serverIndex);
+    }
+
+    /**
+     * Returns every server index on which the IP is blacklisted, with a single
+     * map lookup. Callers scan their own ranges on the returned snapshot.
+     *
+     * @param ip address packed by {@link Ipv4#parse}
+     * @return immutable index set, empty if the IP is not blacklisted anywhere
+     */
+    public ServerIndexSet serverIndexes(int ip) {
+        ServerIndexSet servers = blacklistedByIp.get(ip);
+        return servers != null ? servers : ServerIndexSet.EMPTY;
+    }
+
+    /**
+     * @return immutable index set, empty if the IP is not blacklisted anywhere
+     *         or is not an IPv4 address
+     */
+    public ServerIndexSet serverIndexes(String ip) {
+        final int packed;
+        try {
+            packed = Ipv4.parse(ip);
+        } catch (IllegalArgumentException e) {
+            return ServerIndexSet.EMPTY; // nunca pudo agregarse: seed también valida
+        }
+        return serverIndexes(packed);
+    }
+
+    /**
+     * The in-memory index answers whole ranges, so checkers never need per-server queries.
+     */
+    @Override
+    public ServerIndexSet localIndex(int ip) {
+        return serverIndexes(ip);
+    }
+
+    /**
+     * Counts the servers in {@code [start, end)} that blacklist the IP.
+     */
+    public int countInRange(String ip, int start, int end) {
+        return serverIndexes(ip).countInRange(start, end);
+    }
+
+    /**
+     * Lists, in ascending order, up to {@code limit} servers in {@code [start, end)} that blacklist the IP.
+     */
+    public int[] positionsInRange(String ip, int start, int end, int limit) {
+        return serverIndexes(ip).positionsInRange(start, end, limit);
     }
 
+    @Override
     public void reportAsTrustworthy(String ip) {
         logger.info("HOST " + ip + " Reported as trustworthy");
     }
 
+    @Override
     public void reportAsNotTrustworthy(String ip) {
         logger.info("HOST " + ip + " Reported as NOT trustworthy");
     }
 
+    /**
+     * Registers a callback invoked with the packed IP after {@code seed} or
+     * {@code clear} has changed its entry, e.g. to invalidate cached results.
+     */
+    public void addChangeListener(IntConsumer listener) {
+        changeListeners.add(Objects.requireNonNull(listener));
+    }
+
     // Utilities
     public void seed(String ip, List<Integer> indices) {
-        blacklistedByIp.computeIfAbsent(ip, k -> ConcurrentHashMap.newKeySet()).addAll(indices);
+        int key = Ipv4.parse(ip);
+        blacklistedByIp.merge(key, ServerIndexSet.of(indices), ServerIndexSet::union);
+        fireChanged(key);
+    }
+
+    /**
+     * Bulk variant of {@code seed} for dataset loaders: merges the first
+     * {@code n} prebuilt sets in one locked pass and does not notify change
+     * listeners, so it is meant to run at startup, before any result has been
+     * cached.
+     *
+     * @param ips     addresses packed by {@link Ipv4#parse}
+     * @param servers set of each address, same order
+     */
+    public void load(int[] ips, ServerIndexSet[] servers, int n) {
+        blacklistedByIp.mergeAll(ips, servers, n, ServerIndexSet::union);
+    }
+
+    /**
+     * Sizes the index for {@code ips} entries up front, so a bulk load does not rehash.
+     */
+    public void ensureCapacity(int ips) {
+        blacklistedByIp.ensureCapacity(ips);
+    }
+
+    /**
+     * @return number of IPs blacklisted on at least one server
+     */
+    public int size() {
+        return blacklistedByIp.size();
     }
 
     public void clear(String ip) {
-        blacklistedByIp.remove(ip);
+        int key = Ipv4.parse(ip);
+        if (blacklistedByIp.remove(key) != null) {
+            fireChanged(key);
+        }
+    }
+
+    private void fireChanged(int ip) {
+        for (IntConsumer listener : changeListeners) {
+            listener.accept(ip);
+        }
     }
 }
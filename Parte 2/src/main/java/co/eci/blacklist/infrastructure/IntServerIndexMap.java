@@ -0,0 +1,197 @@
+package co.eci.blacklist.infrastructure;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.function.BinaryOperator;
+
+/**
+ * Map from a packed IPv4 address to its {@link ServerIndexSet}, with open
+ * addressing over two parallel arrays: no boxed keys, no per-entry nodes.
+ * <p>
+ * Reads take no lock. Writers are serialized. A new entry's value is written
+ * before its key, with release semantics, and readers load the key with
+ * acquire semantics. A reader that finds a key therefore also sees its value.
+ * A removed entry keeps its key with a {@code null} value (a tombstone) until
+ * the next resize. Resizing rehashes into fresh arrays and publishes them
+ * through a volatile field, so a reader always probes one consistent table.
+ * Key 0 ({@code 0.0.0.0}) marks empty slots, so its value has its own field.
+ */
+public final class IntServerIndexMap {
+
+    private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(ServerIndexSet[].class);
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private volatile Table table = new Table(MIN_CAPACITY);
+    private volatile ServerIndexSet zeroKeyValue;
+    private volatile int size;
+
+    /** Slots in use (live entries plus tombstones); guarded by {@code this}. */
+    private int used;
+
+    /**
+     * @return the set of the IP, or {@code null} if absent
+     */
+    public ServerIndexSet get(int ip) {
+        if (ip == 0) {
+            return zeroKeyValue;
+        }
+        Table t = table;
+        for (int i = mix(ip) & t.mask; ; i = (i + 1) & t.mask) {
+            int k = (int) KEYS.getAcquire(t.keys, i);
+            if (k == ip) {
+                return (ServerIndexSet) VALUES.getAcquire(t.values, i);
+            }
+            if (k == 0) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Stores {@code value}, or combines it with the current set when present.
+     *
+     * @param merge called with (current, value) while the write lock is held
+     * @return the set now stored
+     */
+    public synchronized ServerIndexSet merge(int ip, ServerIndexSet value, BinaryOperator<ServerIndexSet> merge) {
+        ServerIndexSet updated = mergeLocked(ip, value, merge);
+        if (used > table.threshold) {
+            resize(size);
+        }
+        return updated;
+    }
+
+    /**
+     * Bulk {@link #merge} of the first {@code n} pairs under a single lock
+     * acquisition, growing the table at most once up front. Loader threads
+     * build their sets unlocked and hand them over in batches, so they contend
+     * once per batch instead of once per IP.
+     *
+     * @param merge called with (current, value) while the write lock is held
+     */
+    public synchronized void mergeAll(int[] ips, ServerIndexSet[] values, int n,
+                                      BinaryOperator<ServerIndexSet> merge) {
+        if (used + n > table.threshold) {
+            resize(size + n);
+        }
+        for (int k = 0; k < n; k++) {
+            mergeLocked(ips[k], values[k], merge);
+        }
+    }
+
+    private ServerIndexSet mergeLocked(int ip, ServerIndexSet value, BinaryOperator<ServerIndexSet> merge) {
+        if (ip == 0) {
+            ServerIndexSet old = zeroKeyValue;
+            if (old == null) {
+                size++;
+            }
+            return zeroKeyValue = old == null ? value : merge.apply(old, value);
+        }
+        Table t = table;
+        int i = slot(t, ip);
+        ServerIndexSet old = t.values[i];
+        ServerIndexSet updated = old == null ? value : merge.apply(old, value);
+        VALUES.setRelease(t.values, i, updated);
+        if (t.keys[i] == 0) {
+            KEYS.setRelease(t.keys, i, ip);
+            used++;
+        }
+        if (old == null) {
+            size++;
+        }
+        return updated;
+    }
+
+    /**
+     * @return the removed set, or {@code null} if the IP was absent
+     */
+    public synchronized ServerIndexSet remove(int ip) {
+        ServerIndexSet old;
+        if (ip == 0) {
+            old = zeroKeyValue;
+            zeroKeyValue = null;
+        } else {
+            Table t = table;
+            int i = slot(t, ip);
+            old = t.values[i];
+            if (old != null) {
+                VALUES.setRelease(t.values, i, null); // lápida: la clave queda hasta el próximo resize
+            }
+        }
+        if (old != null) {
+            size--;
+        }
+        return old;
+    }
+
+    /**
+     * Grows the table ahead of a bulk load so it holds {@code expected} IPs without rehashing.
+     */
+    public synchronized void ensureCapacity(int expected) {
+        if (expected > table.threshold) {
+            resize(expected);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Slots in the current table. */
+    int capacity() {
+        return table.keys.length;
+    }
+
+    /** Slot holding {@code ip}, or the empty slot where it would go. */
+    private static int slot(Table t, int ip) {
+        int i = mix(ip) & t.mask;
+        while (t.keys[i] != ip && t.keys[i] != 0) {
+            i = (i + 1) & t.mask;
+        }
+        return i;
+    }
+
+    /** Rehashes the live entries into a table sized for {@code live} of them; drops tombstones. */
+    private void resize(int live) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < MAX_CAPACITY && live + 1 > capacity * 3L / 4) {
+            capacity <<= 1;
+        }
+        Table old = table;
+        Table fresh = new Table(capacity);
+        int n = 0;
+        for (int i = 0; i < old.keys.length; i++) {
+            ServerIndexSet v = old.values[i];
+            if (v != null) {
+                int j = slot(fresh, old.keys[i]);
+                fresh.keys[j] = old.keys[i];
+                fresh.values[j] = v;
+                n++;
+            }
+        }
+        used = n;
+        table = fresh; // publicación: los lectores ven la tabla completa
+    }
+
+    /** Spreads sequential addresses (e.g. one subnet) over the whole table. */
+    private static int mix(int ip) {
+        int h = ip * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Table {
+        final int[] keys;
+        final ServerIndexSet[] values;
+        final int mask;
+        final int threshold;
+
+        Table(int capacity) {
+            keys = new int[capacity];
+            values = new ServerIndexSet[capacity];
+            mask = capacity - 1;
+            threshold = (int) Math.min(capacity - 1L, capacity * 3L / 4);
+        }
+    }
+}
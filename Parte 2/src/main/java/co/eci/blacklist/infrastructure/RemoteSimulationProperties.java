@@ -0,0 +1,113 @@
+package co.eci.blacklist.infrastructure;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of {@link SimulatedRemoteDataSource}, under {@code blacklist.remote}.
+ */
+@ConfigurationProperties(prefix = "blacklist.remote")
+public class RemoteSimulationProperties {
+    /**
+     * Replace the in-memory answers with simulated remote servers.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Median latency of a normal server query.
+     */
+    private double medianMs = 2.0;
+
+    /**
+     * Spread of the log-normal latency distribution (0 = constant latency).
+     */
+    private double sigma = 0.5;
+
+    /**
+     * Fraction of servers that are consistently slower than the rest.
+     */
+    private double slowServerFraction = 0.05;
+
+    /**
+     * Latency multiplier applied to the slow servers.
+     */
+    private double slowServerFactor = 5.0;
+
+    /**
+     * Probability that a query hits a tail spike (GC pause, retransmit...).
+     */
+    private double spikeProbability = 0.01;
+
+    /**
+     * Extra latency added by a tail spike.
+     */
+    private double spikeMs = 200.0;
+
+    /**
+     * Probability that a query fails instead of answering.
+     */
+    private double failureProbability = 0.001;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getMedianMs() {
+        return medianMs;
+    }
+
+    public void setMedianMs(double medianMs) {
+        this.medianMs = medianMs;
+    }
+
+    public double getSigma() {
+        return sigma;
+    }
+
+    public void setSigma(double sigma) {
+        this.sigma = sigma;
+    }
+
+    public double getSlowServerFraction() {
+        return slowServerFraction;
+    }
+
+    public void setSlowServerFraction(double slowServerFraction) {
+        this.slowServerFraction = slowServerFraction;
+    }
+
+    public double getSlowServerFactor() {
+        return slowServerFactor;
+    }
+
+    public void setSlowServerFactor(double slowServerFactor) {
+        this.slowServerFactor = slowServerFactor;
+    }
+
+    public double getSpikeProbability() {
+        return spikeProbability;
+    }
+
+    public void setSpikeProbability(double spikeProbability) {
+        this.spikeProbability = spikeProbability;
+    }
+
+    public double getSpikeMs() {
+        return spikeMs;
+    }
+
+    public void setSpikeMs(double spikeMs) {
+        this.spikeMs = spikeMs;
+    }
+
+    public double getFailureProbability() {
+        return failureProbability;
+    }
+
+    public void setFailureProbability(double failureProbability) {
+        this.failureProbability = failureProbability;
+    }
+}
@@ -0,0 +1,253 @@
+package co.eci.blacklist.infrastructure;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Immutable set of server indices on which one IP is blacklisted.
+ * <p>
+ * Like a roaring bitmap container, it picks its representation from the data:
+ * a sorted {@code int[]} while the set is sparse, and a {@code long[]} bitmap
+ * once that is smaller. Range queries work on whole words, so a worker can
+ * count or list the hits of its chunk without probing every index.
+ */
+public sealed interface ServerIndexSet permits ServerIndexSet.Sorted, ServerIndexSet.Bitmap {
+
+    ServerIndexSet EMPTY = new Sorted(new int[0]);
+
+    /**
+     * Builds a set from the given indices, choosing the most compact representation.
+     *
+     * @param indices non-negative server indices, duplicates allowed
+     * @return an immutable set
+     */
+    static ServerIndexSet of(Collection<Integer> indices) {
+        int[] values = indices.stream().mapToInt(Integer::intValue).toArray();
+        return of(values);
+    }
+
+    /**
+     * Builds a set from the given indices, choosing the most compact representation.
+     * The array is not retained.
+     *
+     * @param indices non-negative server indices, duplicates allowed
+     * @return an immutable set
+     */
+    static ServerIndexSet of(int[] indices) {
+        int[] sorted = Arrays.stream(indices).sorted().distinct().toArray();
+        if (sorted.length > 0 && sorted[0] < 0) {
+            throw new IllegalArgumentException("Server index must be >= 0: " + sorted[0]);
+        }
+        return compact(sorted);
+    }
+
+    /**
+     * Builds a set from indices that are already sorted and distinct, skipping
+     * the copy and sort of {@link #of(int[])}. The array may be retained, so
+     * the caller must not modify it afterwards.
+     *
+     * @param sorted strictly ascending, non-negative server indices
+     * @return an immutable set
+     * @throws IllegalArgumentException if the indices are negative or not strictly ascending
+     */
+    static ServerIndexSet ofSorted(int[] sorted) {
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 ? sorted[0] < 0 : sorted[i] <= sorted[i - 1]) {
+                throw new IllegalArgumentException("Server indices must be >= 0 and strictly ascending at " + i);
+            }
+        }
+        return compact(sorted);
+    }
+
+    private static ServerIndexSet compact(int[] sorted) {
+        if (sorted.length == 0) {
+            return EMPTY;
+        }
+        int words = (sorted[sorted.length - 1] >>> 6) + 1;
+        // Un long del bitmap ocupa lo mismo que dos int del arreglo ordenado
+        return 2L * words < sorted.length ? Bitmap.of(sorted, words) : new Sorted(sorted);
+    }
+
+    /**
+     * Returns a new set holding the indices of this one plus the given ones.
+     *
+     * @param more indices to add
+     * @return the union, this set itself if nothing changed
+     */
+    default ServerIndexSet union(Collection<Integer> more) {
+        if (more.isEmpty()) {
+            return this;
+        }
+        int[] current = toArray();
+        int[] merged = Arrays.copyOf(current, current.length + more.size());
+        int i = current.length;
+        for (int v : more) {
+            merged[i++] = v;
+        }
+        return of(merged);
+    }
+
+    /**
+     * Returns a new set holding the indices of both sets.
+     *
+     * @param other set to merge with this one
+     * @return the union, one of the operands itself if the other is empty
+     */
+    default ServerIndexSet union(ServerIndexSet other) {
+        if (other.cardinality() == 0) {
+            return this;
+        }
+        if (cardinality() == 0) {
+            return other;
+        }
+        int[] current = toArray();
+        int[] added = other.toArray();
+        int[] merged = Arrays.copyOf(current, current.length + added.length);
+        System.arraycopy(added, 0, merged, current.length, added.length);
+        return of(merged);
+    }
+
+    boolean contains(int index);
+
+    int cardinality();
+
+    /**
+     * Counts the indices in {@code [start, end)}.
+     *
+     * @param start first index, inclusive
+     * @param end   last index, exclusive
+     * @return number of indices in the range
+     */
+    int countInRange(int start, int end);
+
+    /**
+     * Lists the indices in {@code [start, end)} in ascending order, stopping
+     * after {@code limit} of them.
+     *
+     * @param start first index, inclusive
+     * @param end   last index, exclusive
+     * @param limit maximum number of positions to return
+     * @return ascending positions, at most {@code limit}
+     */
+    int[] positionsInRange(int start, int end, int limit);
+
+    /**
+     * @return all indices in ascending order
+     */
+    default int[] toArray() {
+        return positionsInRange(0, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    /** Sparse representation: sorted, distinct indices. */
+    final class Sorted implements ServerIndexSet {
+        private final int[] values;
+
+        private Sorted(int[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public boolean contains(int index) {
+            return Arrays.binarySearch(values, index) >= 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return values.length;
+        }
+
+        @Override
+        public int countInRange(int start, int end) {
+            return start >= end ? 0 : lowerBound(end) - lowerBound(start);
+        }
+
+        @Override
+        public int[] positionsInRange(int start, int end, int limit) {
+            if (start >= end || limit <= 0) {
+                return new int[0];
+            }
+            int from = lowerBound(start);
+            int to = from + Math.min(limit, lowerBound(end) - from); // from + limit puede desbordar
+            return Arrays.copyOfRange(values, from, to);
+        }
+
+        /** First position whose value is >= {@code key}. */
+        private int lowerBound(int key) {
+            int i = Arrays.binarySearch(values, key);
+            return i >= 0 ? i : -i - 1;
+        }
+    }
+
+    /** Dense representation: one bit per server index. */
+    final class Bitmap implements ServerIndexSet {
+        private final long[] words;
+        private final int cardinality;
+
+        private Bitmap(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        private static Bitmap of(int[] sorted, int words) {
+            long[] bits = new long[words];
+            for (int v : sorted) {
+                bits[v >>> 6] |= 1L << v;
+            }
+            return new Bitmap(bits, sorted.length);
+        }
+
+        @Override
+        public boolean contains(int index) {
+            int w = index >>> 6;
+            return index >= 0 && w < words.length && (words[w] & (1L << index)) != 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public int countInRange(int start, int end) {
+            start = Math.max(0, start);
+            end = (int) Math.min(end, (long) words.length << 6);
+            if (start >= end) {
+                return 0;
+            }
+            int first = start >>> 6;
+            int last = (end - 1) >>> 6;
+            long firstMask = -1L << start;
+            long lastMask = -1L >>> -end;
+            if (first == last) {
+                return Long.bitCount(words[first] & firstMask & lastMask);
+            }
+            int count = Long.bitCount(words[first] & firstMask);
+            for (int w = first + 1; w < last; w++) {
+                count += Long.bitCount(words[w]);
+            }
+            return count + Long.bitCount(words[last] & lastMask);
+        }
+
+        @Override
+        public int[] positionsInRange(int start, int end, int limit) {
+            start = Math.max(0, start);
+            end = (int) Math.min(end, (long) words.length << 6);
+            if (start >= end || limit <= 0) {
+                return new int[0];
+            }
+            int[] out = new int[Math.min(limit, countInRange(start, end))];
+            int n = 0;
+            int w = start >>> 6;
+            long word = words[w] & (-1L << start);
+            while (n < out.length) {
+                // Recorre solo los bits encendidos de cada palabra
+                while (word == 0) {
+                    word = words[++w];
+                }
+                out[n++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+            return out;
+        }
+    }
+}
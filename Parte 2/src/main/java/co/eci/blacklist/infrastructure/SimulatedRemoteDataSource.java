@@ -0,0 +1,69 @@
+package co.eci.blacklist.infrastructure;
+
+import co.eci.blacklist.domain.BlacklistDataSource;
+import co.eci.blacklist.domain.DataSourceUnavailableException;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for remote blacklist servers. Answers come from a delegate
+ * (normally the in-memory facade), but every query first waits a simulated
+ * network latency and may fail:
+ * <ul>
+ *     <li>log-normal latency around {@code medianMs};</li>
+ *     <li>a fixed subset of servers is {@code slowServerFactor} times slower;</li>
+ *     <li>with {@code spikeProbability} a query gets {@code spikeMs} extra (tail spike);</li>
+ *     <li>with {@code failureProbability} a query throws {@link DataSourceUnavailableException}.</li>
+ * </ul>
+ * It exposes no local index, so the checker has to query server by server.
+ */
+public class SimulatedRemoteDataSource implements BlacklistDataSource {
+
+    private final BlacklistDataSource delegate;
+    private final RemoteSimulationProperties props;
+
+    public SimulatedRemoteDataSource(BlacklistDataSource delegate, RemoteSimulationProperties props) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.props = Objects.requireNonNull(props);
+    }
+
+    @Override
+    public int getRegisteredServersCount() {
+        return delegate.getRegisteredServersCount();
+    }
+
+    @Override
+    public boolean isInBlackListServer(int serverIndex, String ip) throws InterruptedException {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        double ms = props.getMedianMs() * Math.exp(props.getSigma() * rnd.nextGaussian());
+        if (isSlow(serverIndex)) {
+            ms *= props.getSlowServerFactor();
+        }
+        if (rnd.nextDouble() < props.getSpikeProbability()) {
+            ms += props.getSpikeMs();
+        }
+        TimeUnit.NANOSECONDS.sleep((long) (ms * 1_000_000));
+        if (rnd.nextDouble() < props.getFailureProbability()) {
+            throw new DataSourceUnavailableException("Blacklist server " + serverIndex + " did not answer");
+        }
+        return delegate.isInBlackListServer(serverIndex, ip);
+    }
+
+    @Override
+    public void reportAsTrustworthy(String ip) {
+        delegate.reportAsTrustworthy(ip);
+    }
+
+    @Override
+    public void reportAsNotTrustworthy(String ip) {
+        delegate.reportAsNotTrustworthy(ip);
+    }
+
+    /** Los servidores lentos son siempre los mismos: se eligen por hash del índice. */
+    private boolean isSlow(int serverIndex) {
+        int h = serverIndex * 0x9E3779B9;
+        return ((h >>> 8) & 0xFFFF) < props.getSlowServerFraction() * 0x10000;
+    }
+}
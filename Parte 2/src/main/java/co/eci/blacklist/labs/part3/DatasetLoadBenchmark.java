@@ -0,0 +1,95 @@
+package co.eci.blacklist.labs.part3;
+
+import co.eci.blacklist.infrastructure.BlacklistDataset;
+import co.eci.blacklist.infrastructure.HostBlackListsDataSourceFacade;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Tiempo de arranque y memoria al cargar un dataset binario en la fachada.
+ * Genera (una sola vez) un archivo sintético de {@code entries} pares con
+ * {@code perIp} servidores por IP y lo carga con {@code threads} hilos. La
+ * fachada es un singleton, así que cada JVM mide una sola carga: para comparar
+ * números de hilos, ejecutar varias veces sobre el mismo archivo.
+ *
+ * <pre>
+ * java -Xmx4g ... DatasetLoadBenchmark -Dentries=50000000 -DperIp=10 -Dthreads=4 -Dfile=/tmp/blacklist-50m.bin
+ * </pre>
+ */
+public class DatasetLoadBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        long entries = Long.getLong("entries", 50_000_000L);
+        int perIp = Integer.getInteger("perIp", 10);
+        int servers = Integer.getInteger("servers", 10_000);
+        int threads = Integer.getInteger("threads", Runtime.getRuntime().availableProcessors());
+        Path file = Path.of(System.getProperty("file",
+                System.getProperty("java.io.tmpdir") + "/blacklist-" + entries + "x" + perIp + ".bin"));
+
+        if (!Files.exists(file)) {
+            long t0 = System.nanoTime();
+            generate(file, entries, perIp, servers);
+            System.out.printf("generated %s (%d MB) in %d ms%n", file, Files.size(file) >> 20,
+                    (System.nanoTime() - t0) / 1_000_000);
+        }
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        HostBlackListsDataSourceFacade facade = HostBlackListsDataSourceFacade.getInstance();
+        long heapBefore = usedHeapAfterGc(memory);
+        long rssBefore = rssBytes();
+
+        BlacklistDataset.LoadStats stats = BlacklistDataset.load(file, facade, threads);
+
+        long heap = usedHeapAfterGc(memory) - heapBefore;
+        long rss = rssBytes();
+        System.out.printf("%-8s %-8s %-6s %-11s %-12s %-10s %-10s %-10s %-10s%n",
+                "threads", "parts", "ms", "Mentries/s", "ips", "heap_MB", "B/entry", "B/ip", "rss_MB");
+        System.out.printf("%-8d %-8d %-6d %-11.1f %-12d %-10d %-10.1f %-10.1f %-10s%n",
+                threads, stats.parts(), stats.nanos() / 1_000_000,
+                stats.entries() * 1e3 / stats.nanos(), facade.size(), heap >> 20,
+                (double) heap / stats.entries(), (double) heap / stats.ips(),
+                rss < 0 ? "n/a" : (rss >> 20) + " (+" + ((rss - rssBefore) >> 20) + ")");
+    }
+
+    /**
+     * Writes {@code entries} pairs in file order: ascending IPs from 1.0.0.0,
+     * each blacklisted on {@code perIp} servers, one picked at random from each
+     * equal slice of the server range.
+     */
+    private static void generate(Path file, long entries, int perIp, int servers) throws IOException {
+        SplittableRandom random = new SplittableRandom(42);
+        int stride = servers / perIp;
+        try (BlacklistDataset.Writer out = new BlacklistDataset.Writer(file, servers)) {
+            int ip = 0x01000000;
+            for (long written = 0; written < entries; ip++) {
+                for (int j = 0; j < perIp && written < entries; j++, written++) {
+                    out.add(ip, j * stride + random.nextInt(stride));
+                }
+            }
+        }
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    /** Resident set size from {@code /proc/self/status}, or -1 outside Linux. */
+    private static long rssBytes() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Sin /proc (macOS, Windows)
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,74 @@
+package co.eci.blacklist.labs.part3;
+
+import co.eci.blacklist.domain.BlacklistChecker;
+import co.eci.blacklist.domain.MatchResult;
+import co.eci.blacklist.domain.Policies;
+import co.eci.blacklist.domain.WorkerBudget;
+import co.eci.blacklist.infrastructure.HostBlackListsDataSourceFacade;
+import co.eci.blacklist.infrastructure.RemoteSimulationProperties;
+import co.eci.blacklist.infrastructure.SimulatedRemoteDataSource;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Latencia de un chequeo completo contra servidores remotos simulados, con y
+ * sin hedging, para varios números de hilos. Con picos de cola en 1% de las
+ * consultas casi todo chequeo de 10.000 servidores se topa con alguno: sin
+ * réplica el p99 queda en el pico, con réplica se recorta.
+ *
+ * <pre>
+ * java ... HedgingBenchmark -Dchecks=20 -Dthreads=64,256 -DhedgeAfterMs=0,10 -Dip=1.1.1.1
+ * </pre>
+ */
+public class HedgingBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int checks = Integer.getInteger("checks", 20);
+        int[] threadCounts = ints(System.getProperty("threads", "64,256"));
+        int[] hedges = ints(System.getProperty("hedgeAfterMs", "0,10"));
+        String ip = System.getProperty("ip", "1.1.1.1"); // confiable: recorre todos los servidores
+
+        Logger.getLogger("co.eci.blacklist").setLevel(Level.WARNING);
+
+        RemoteSimulationProperties remote = new RemoteSimulationProperties();
+        SimulatedRemoteDataSource source =
+                new SimulatedRemoteDataSource(HostBlackListsDataSourceFacade.getInstance(), remote);
+        System.out.printf("remote median=%.1fms sigma=%.1f spike=%.0f%%/%.0fms failures=%.2f%%%n",
+                remote.getMedianMs(), remote.getSigma(), remote.getSpikeProbability() * 100,
+                remote.getSpikeMs(), remote.getFailureProbability() * 100);
+        System.out.printf("%7s %6s %9s %9s %9s %8s %7s %8s%n",
+                "threads", "hedge", "p50_ms", "p99_ms", "max_ms", "hedged", "failed", "partial");
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int threads : threadCounts) {
+                for (int hedge : hedges) {
+                    Policies policies = new Policies();
+                    policies.setHedgeAfterMs(hedge);
+                    policies.setMaxInFlightWorkers(Math.max(threads, policies.getMaxInFlightWorkers()));
+                    BlacklistChecker checker = new BlacklistChecker(source, policies, workers,
+                            new WorkerBudget(policies.getMaxInFlightWorkers(), policies.getAdmissionTimeoutMs()));
+                    long[] ms = new long[checks];
+                    int partial = 0;
+                    for (int i = 0; i < checks; i++) {
+                        long t0 = System.nanoTime();
+                        MatchResult r = checker.checkHost(ip, threads);
+                        ms[i] = (System.nanoTime() - t0) / 1_000_000;
+                        partial += r.partial() ? 1 : 0;
+                    }
+                    Arrays.sort(ms);
+                    System.out.printf("%7d %6d %9d %9d %9d %8d %7d %8d%n", threads, hedge,
+                            ms[checks / 2], ms[Math.min(checks - 1, (int) Math.ceil(checks * 0.99) - 1)],
+                            ms[checks - 1], checker.hedgedQueries(), checker.failedQueries(), partial);
+                }
+            }
+        }
+    }
+
+    private static int[] ints(String csv) {
+        return Arrays.stream(csv.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+    }
+}
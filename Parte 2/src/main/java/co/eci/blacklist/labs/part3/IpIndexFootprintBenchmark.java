@@ -0,0 +1,141 @@
+package co.eci.blacklist.labs.part3;
+
+import co.eci.blacklist.domain.Ipv4;
+import co.eci.blacklist.infrastructure.IntServerIndexMap;
+import co.eci.blacklist.infrastructure.ServerIndexSet;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Memoria y costo de búsqueda del índice de la fachada para {@code ips} IPs
+ * con {@code perIp} servidores cada una, en tres formas:
+ * <ul>
+ *   <li>{@code sets}: {@code ConcurrentHashMap<String, Set<Integer>>}, el diseño original;</li>
+ *   <li>{@code indexsets}: {@code ConcurrentHashMap<String, ServerIndexSet>};</li>
+ *   <li>{@code int}: {@link IntServerIndexMap}, clave IPv4 empaquetada en int.</li>
+ * </ul>
+ * Para {@code int} se mide la búsqueda con la IP ya convertida y también
+ * incluyendo {@link Ipv4#parse}, que el controlador hace una vez por petición.
+ *
+ * <pre>
+ * java -Xmx5g ... IpIndexFootprintBenchmark -Dips=10000000 -DperIp=4 -Dlayouts=sets,indexsets,int
+ * </pre>
+ */
+public class IpIndexFootprintBenchmark {
+
+    private static final int BASE_IP = 0x0A000000; // 10.0.0.0: hasta 16M IPs consecutivas
+    private static final int SERVERS = 10_000;
+    private static final int PROBES = 1 << 20;
+
+    public static void main(String[] args) {
+        int ips = Integer.getInteger("ips", 10_000_000);
+        int perIp = Integer.getInteger("perIp", 4);
+        int lookups = Integer.getInteger("lookups", 5_000_000);
+        String[] layouts = System.getProperty("layouts", "sets,indexsets,int").split(",");
+
+        // Muestras de búsqueda creadas antes de medir el heap
+        SplittableRandom random = new SplittableRandom(7);
+        int[] probeInts = new int[PROBES];
+        String[] probeStrings = new String[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probeInts[i] = BASE_IP + random.nextInt(ips);
+            probeStrings[i] = Ipv4.format(probeInts[i]);
+        }
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.out.printf("ips=%d perIp=%d lookups=%d%n", ips, perIp, lookups);
+        System.out.printf("%-10s %9s %9s %8s %13s%n", "layout", "build_ms", "heap_MB", "B/ip", "ns/lookup");
+        for (String layout : layouts) {
+            long before = usedHeapAfterGc(memory);
+            long t0 = System.nanoTime();
+            Object index = build(layout.trim(), ips, perIp);
+            long buildMs = (System.nanoTime() - t0) / 1_000_000;
+            long heap = usedHeapAfterGc(memory) - before;
+
+            String lookup;
+            if (index instanceof IntServerIndexMap map) {
+                lookup = String.format("%.0f (+parse %.0f)", nanosPerLookup(lookups, i -> map.get(probeInts[i])),
+                        nanosPerLookup(lookups, i -> map.get(Ipv4.parse(probeStrings[i]))));
+            } else {
+                Map<?, ?> map = (Map<?, ?>) index;
+                lookup = String.format("%.0f", nanosPerLookup(lookups, i -> map.get(probeStrings[i])));
+            }
+            System.out.printf("%-10s %9d %9d %8.1f %13s%n", layout, buildMs, heap >> 20,
+                    (double) heap / ips, lookup);
+        }
+    }
+
+    private static Object build(String layout, int ips, int perIp) {
+        switch (layout) {
+            case "sets" -> {
+                Map<String, Set<Integer>> map = new ConcurrentHashMap<>();
+                for (int i = 0; i < ips; i++) {
+                    Set<Integer> servers = ConcurrentHashMap.newKeySet();
+                    for (int j = 0; j < perIp; j++) {
+                        servers.add(server(i, j));
+                    }
+                    map.put(Ipv4.format(BASE_IP + i), servers);
+                }
+                return map;
+            }
+            case "indexsets" -> {
+                Map<String, ServerIndexSet> map = new ConcurrentHashMap<>();
+                for (int i = 0; i < ips; i++) {
+                    map.put(Ipv4.format(BASE_IP + i), ServerIndexSet.of(servers(i, perIp)));
+                }
+                return map;
+            }
+            case "int" -> {
+                IntServerIndexMap map = new IntServerIndexMap();
+                for (int i = 0; i < ips; i++) {
+                    map.merge(BASE_IP + i, ServerIndexSet.of(servers(i, perIp)), ServerIndexSet::union);
+                }
+                return map;
+            }
+            default -> throw new IllegalArgumentException("Unknown layout: " + layout);
+        }
+    }
+
+    private static int[] servers(int ip, int perIp) {
+        int[] servers = new int[perIp];
+        Arrays.setAll(servers, j -> server(ip, j));
+        return servers;
+    }
+
+    /** Distinct servers per IP, spread over the whole range. */
+    private static int server(int ip, int j) {
+        return (int) ((ip * 7919L + j * 2503L) % SERVERS);
+    }
+
+    private static double nanosPerLookup(int lookups, Probe probe) {
+        long sink = 0;
+        for (int i = 0; i < lookups / 10; i++) { // calentamiento
+            sink += probe.get(i & (PROBES - 1)) != null ? 1 : 0;
+        }
+        long t0 = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            sink += probe.get(i & (PROBES - 1)) != null ? 1 : 0;
+        }
+        long nanos = System.nanoTime() - t0;
+        if (sink == 42) {
+            System.out.print("");
+        }
+        return (double) nanos / lookups;
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    @FunctionalInterface
+    private interface Probe {
+        Object get(int i);
+    }
+}
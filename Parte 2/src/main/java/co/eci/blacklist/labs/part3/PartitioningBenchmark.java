@@ -0,0 +1,84 @@
+package co.eci.blacklist.labs.part3;
+
+import co.eci.blacklist.domain.BlacklistChecker;
+import co.eci.blacklist.domain.MatchResult;
+import co.eci.blacklist.domain.Policies;
+import co.eci.blacklist.domain.WorkerBudget;
+import co.eci.blacklist.infrastructure.HostBlackListsDataSourceFacade;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+/**
+ * Compara el reparto estático (un rango igual por hilo) contra el dinámico
+ * (bloques pequeños desde un cursor compartido) con datos sesgados.
+ * Imprime latencia media y p99 por chequeo y cuántos servidores se revisaron.
+ *
+ * <pre>
+ * java ... PartitioningBenchmark -Diterations=2000 -Dthreads=1,4,16,64 -DchunkSize=256
+ * </pre>
+ */
+public class PartitioningBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int iterations = Integer.getInteger("iterations", 2_000);
+        int[] threadCounts = Arrays.stream(System.getProperty("threads", "1,4,16,64").split(","))
+                .map(String::trim).mapToInt(Integer::parseInt).toArray();
+        int chunkSize = Integer.getInteger("chunkSize", 256);
+
+        // Los reportes por IP inundan la consola
+        Logger.getLogger("co.eci.blacklist").setLevel(Level.WARNING);
+
+        HostBlackListsDataSourceFacade facade = HostBlackListsDataSourceFacade.getInstance();
+        int servers = facade.getRegisteredServersCount();
+        // Direcciones del rango de documentación 198.51.100.0/24 (RFC 5737)
+        Map<String, List<Integer>> datasets = Map.of(
+                "198.51.100.1", IntStream.range(0, 10).boxed().toList(),            // todo en los primeros índices
+                "198.51.100.2", IntStream.range(servers - 10, servers).boxed().toList(), // todo al final
+                "198.51.100.3", List.of(17, servers / 2, servers - 3),              // confiable: recorrido completo
+                "198.51.100.4", IntStream.range(0, servers).filter(i -> i % 7 == 0).boxed().toList());
+        datasets.forEach(facade::seed);
+
+        System.out.printf("%-8s %-13s %7s %10s %10s %9s%n", "mode", "ip", "threads", "avg_us", "p99_us", "checked");
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String mode : List.of("static", "dynamic")) {
+                Policies policies = new Policies();
+                policies.setPartitioning(mode);
+                policies.setDynamicChunkSize(chunkSize);
+                BlacklistChecker checker = new BlacklistChecker(facade, policies, workers,
+                        new WorkerBudget(policies.getMaxInFlightWorkers(), policies.getAdmissionTimeoutMs()));
+                for (String ip : datasets.keySet().stream().sorted().toList()) {
+                    for (int threads : threadCounts) {
+                        run(checker, mode, ip, threads, iterations);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void run(BlacklistChecker checker, String mode, String ip, int threads, int iterations)
+            throws InterruptedException {
+        for (int i = 0; i < iterations / 10; i++) {
+            checker.checkHost(ip, threads); // calentamiento
+        }
+        long[] nanos = new long[iterations];
+        long checked = 0;
+        for (int i = 0; i < iterations; i++) {
+            long t0 = System.nanoTime();
+            MatchResult r = checker.checkHost(ip, threads);
+            nanos[i] = System.nanoTime() - t0;
+            checked += r.checkedServers();
+        }
+        Arrays.sort(nanos);
+        double avg = Arrays.stream(nanos).average().orElse(0) / 1e3;
+        double p99 = nanos[Math.min(nanos.length - 1, (int) Math.ceil(nanos.length * 0.99) - 1)] / 1e3;
+        System.out.printf("%-8s %-13s %7d %10.1f %10.1f %9d%n", mode, ip, threads, avg, p99, checked / iterations);
+    }
+}
@@ -0,0 +1,86 @@
+package co.eci.blacklist.application;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import co.eci.blacklist.domain.BlacklistChecker;
+import co.eci.blacklist.domain.BlacklistDataSource;
+import co.eci.blacklist.domain.Ipv4;
+import co.eci.blacklist.domain.MatchResult;
+import co.eci.blacklist.domain.Policies;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Cache fencing and coalescing together: a check that starts after an
+ * invalidation must not reuse a scan that began before it.
+ */
+final class BlacklistServiceTest {
+
+    @Test
+    void checkAfterInvalidationDoesNotJoinTheOlderScan() throws Exception {
+        int ip = Ipv4.parse("198.51.100.7");
+        CountDownLatch scanning = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SwitchableSource source = new SwitchableSource(scanning, release);
+        Policies policies = new Policies();
+        policies.setAlarmCount(2);
+        policies.setHedgeAfterMs(0);
+        CheckResultCache cache = new CheckResultCache(100, 60_000);
+        BlacklistService service = new BlacklistService(new BlacklistChecker(source, policies), cache,
+                new SimpleMeterRegistry());
+        try {
+            CompletableFuture<MatchResult> before = CompletableFuture.supplyAsync(() -> service.check(ip, 1));
+            assertTrue(scanning.await(5, TimeUnit.SECONDS));
+
+            // El IP se agrega a las listas mientras el primer escaneo sigue en curso
+            source.listed = true;
+            cache.invalidate(ip);
+
+            MatchResult after = CompletableFuture.supplyAsync(() -> service.check(ip, 1)).get(5, TimeUnit.SECONDS);
+            assertFalse(after.trustworthy());
+
+            release.countDown();
+            before.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    /** Lists the IP everywhere once {@code listed} is set; until then every query blocks. */
+    private static final class SwitchableSource implements BlacklistDataSource {
+        private final CountDownLatch scanning;
+        private final CountDownLatch release;
+        volatile boolean listed;
+
+        SwitchableSource(CountDownLatch scanning, CountDownLatch release) {
+            this.scanning = scanning;
+            this.release = release;
+        }
+
+        @Override
+        public int getRegisteredServersCount() {
+            return 2;
+        }
+
+        @Override
+        public boolean isInBlackListServer(int serverIndex, String ip) throws InterruptedException {
+            if (!listed) {
+                scanning.countDown();
+                release.await();
+            }
+            return listed;
+        }
+
+        @Override
+        public void reportAsTrustworthy(String ip) {
+        }
+
+        @Override
+        public void reportAsNotTrustworthy(String ip) {
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package co.eci.blacklist.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import co.eci.blacklist.domain.Ipv4;
+import co.eci.blacklist.domain.MatchResult;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * TTL expiry, per-stripe LRU eviction and generation fencing.
+ */
+final class CheckResultCacheTest {
+
+    private static final int BASE = Ipv4.parse("10.0.0.0");
+
+    @Test
+    void entriesExpireAfterTheTtl() throws Exception {
+        CheckResultCache cache = new CheckResultCache(100, 50);
+        MatchResult r = result(BASE);
+        assertTrue(cache.put(BASE, r, cache.generation(BASE)));
+        assertSame(r, cache.get(BASE));
+
+        Thread.sleep(80);
+        assertNull(cache.get(BASE));
+        assertEquals(1, cache.expirations());
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void zeroTtlDisablesCaching() {
+        CheckResultCache cache = new CheckResultCache(100, 0);
+        assertFalse(cache.put(BASE, result(BASE), cache.generation(BASE)));
+        assertNull(cache.get(BASE));
+    }
+
+    @Test
+    void fullStripeEvictsItsLeastRecentlyUsedEntry() {
+        int[] ips = sameStripe(3);
+        CheckResultCache cache = new CheckResultCache(32, 60_000); // 2 entradas por franja
+        for (int i = 0; i < 2; i++) {
+            cache.put(ips[i], result(ips[i]), cache.generation(ips[i]));
+        }
+        assertTrue(cache.get(ips[0]) != null); // ips[1] queda como el menos usado
+        cache.put(ips[2], result(ips[2]), cache.generation(ips[2]));
+
+        assertNull(cache.get(ips[1]));
+        assertTrue(cache.get(ips[0]) != null);
+        assertTrue(cache.get(ips[2]) != null);
+        assertEquals(1, cache.evictions());
+    }
+
+    @Test
+    void invalidationFencesResultsComputedBeforeIt() {
+        int[] ips = sameStripe(2);
+        CheckResultCache cache = new CheckResultCache(100, 60_000);
+        cache.put(ips[0], result(ips[0]), cache.generation(ips[0]));
+
+        long before = cache.generation(ips[0]);
+        cache.invalidate(ips[0]);
+        assertNull(cache.get(ips[0]));
+        assertEquals(1, cache.invalidations());
+        // Un escaneo que empezó antes del cambio no puede guardar su resultado
+        assertFalse(cache.put(ips[0], result(ips[0]), before));
+        assertNull(cache.get(ips[0]));
+
+        // La valla es por franja: también cubre otras IPs de la misma
+        assertFalse(cache.put(ips[1], result(ips[1]), before));
+        assertTrue(cache.put(ips[0], result(ips[0]), cache.generation(ips[0])));
+    }
+
+    @Test
+    void invalidationDoesNotFenceOtherStripes() {
+        int a = BASE;
+        int b = BASE + 1;
+        while (CheckResultCache.stripeIndex(b) == CheckResultCache.stripeIndex(a)) {
+            b++;
+        }
+        CheckResultCache cache = new CheckResultCache(100, 60_000);
+        long generation = cache.generation(b);
+        cache.invalidate(a);
+        assertTrue(cache.put(b, result(b), generation));
+        assertEquals(0, cache.invalidations()); // a no estaba guardada
+    }
+
+    /** First {@code n} addresses from 10.0.0.0 that share a stripe. */
+    private static int[] sameStripe(int n) {
+        int[] ips = new int[n];
+        int stripe = CheckResultCache.stripeIndex(BASE);
+        for (int ip = BASE, found = 0; found < n; ip++) {
+            if (CheckResultCache.stripeIndex(ip) == stripe) {
+                ips[found++] = ip;
+            }
+        }
+        return ips;
+    }
+
+    private static MatchResult result(int ip) {
+        return new MatchResult(Ipv4.format(ip), true, List.of(), 10, 10, 1, 1, false);
+    }
+}
@@ -0,0 +1,143 @@
+package co.eci.blacklist.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Coalescing of concurrent callers, fan-out of the leader's failure, and
+ * forgetting the key once the computation ends.
+ */
+final class SingleFlightTest {
+
+    private static final int FOLLOWERS = 8;
+
+    @Test
+    void concurrentCallersShareOneComputation() throws Exception {
+        SingleFlight<String, Object> flight = new SingleFlight<>();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        Object value = new Object();
+        try (ExecutorService exec = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Object>> callers = new ArrayList<>();
+            for (int i = 0; i <= FOLLOWERS; i++) {
+                callers.add(exec.submit(() -> flight.execute("ip", () -> {
+                    loads.incrementAndGet();
+                    release.await();
+                    return value;
+                })));
+            }
+            awaitCoalesced(flight, FOLLOWERS, release);
+            release.countDown();
+            for (Future<Object> f : callers) {
+                assertSame(value, f.get(5, TimeUnit.SECONDS));
+            }
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1, flight.executed());
+        assertEquals(FOLLOWERS, flight.coalesced());
+        assertEquals(0, flight.inFlight());
+
+        // Terminado el cálculo la clave se olvida: no es una caché
+        assertSame(value, flight.execute("ip", () -> value));
+        assertEquals(2, flight.executed());
+    }
+
+    @Test
+    void followersReceiveTheLeadersException() throws Exception {
+        SingleFlight<String, Object> flight = new SingleFlight<>();
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("scan failed");
+        try (ExecutorService exec = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Object>> callers = new ArrayList<>();
+            for (int i = 0; i <= FOLLOWERS; i++) {
+                callers.add(exec.submit(() -> flight.execute("ip", () -> {
+                    release.await();
+                    throw failure;
+                })));
+            }
+            awaitCoalesced(flight, FOLLOWERS, release);
+            release.countDown();
+            for (Future<Object> f : callers) {
+                ExecutionException e = assertThrows(ExecutionException.class, () -> f.get(5, TimeUnit.SECONDS));
+                assertSame(failure, e.getCause());
+            }
+        }
+        assertEquals(0, flight.inFlight());
+    }
+
+    @Test
+    void interruptedLeaderFailsFollowersWithoutInterruptingThem() throws Exception {
+        SingleFlight<String, Object> flight = new SingleFlight<>();
+        CountDownLatch leading = new CountDownLatch(1);
+        try (ExecutorService exec = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Object> leader = exec.submit(() -> flight.execute("ip", () -> {
+                leading.countDown();
+                new CountDownLatch(1).await(); // hasta que lo interrumpan
+                return null;
+            }));
+            assertTrue(leading.await(5, TimeUnit.SECONDS));
+            Future<Boolean> follower = exec.submit(() -> {
+                try {
+                    flight.execute("ip", () -> null);
+                    return false;
+                } catch (IllegalStateException e) {
+                    return e.getCause() instanceof InterruptedException && !Thread.currentThread().isInterrupted();
+                }
+            });
+            awaitCoalesced(flight, 1, null);
+            leader.cancel(true);
+
+            assertTrue(follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(0, flight.inFlight());
+    }
+
+    @Test
+    void differentKeysDoNotCoalesce() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        CountDownLatch both = new CountDownLatch(2);
+        try (ExecutorService exec = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> a = exec.submit(() -> flight.execute("a", () -> {
+                both.countDown();
+                both.await();
+                return "a";
+            }));
+            Future<String> b = exec.submit(() -> flight.execute("b", () -> {
+                both.countDown();
+                both.await();
+                return "b";
+            }));
+            assertEquals("a", a.get(5, TimeUnit.SECONDS));
+            assertEquals("b", b.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(2, flight.executed());
+        assertFalse(flight.coalesced() > 0);
+    }
+
+    /** Waits until {@code n} callers joined the flight; releases the leader if that never happens. */
+    private static void awaitCoalesced(SingleFlight<?, ?> flight, int n, CountDownLatch release)
+            throws InterruptedException {
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flight.coalesced() < n && System.nanoTime() < until) {
+            Thread.sleep(1);
+        }
+        if (flight.coalesced() < n && release != null) {
+            release.countDown();
+        }
+        assertEquals(n, flight.coalesced());
+    }
+}
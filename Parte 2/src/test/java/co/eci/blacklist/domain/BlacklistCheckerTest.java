@@ -0,0 +1,293 @@
+package co.eci.blacklist.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checker coordination against scripted sources: deadlines, cancellation,
+ * hedged queries and budget accounting when workers outlive their coordinator.
+ */
+final class BlacklistCheckerTest {
+
+    @Test
+    void workerThatIgnoresCancellationKeepsItsPermitUntilItReturns() throws Exception {
+        CountDownLatch answer = new CountDownLatch(1);
+        BlacklistDataSource blocking = new ScriptedSource(4) {
+            @Override
+            public boolean isInBlackListServer(int serverIndex, String ip) throws InterruptedException {
+                answer.await();
+                return false;
+            }
+        };
+        Policies policies = policies();
+        WorkerBudget budget = new WorkerBudget(2, 1_000);
+        try (ExecutorService workers = new NonInterruptingExecutor()) {
+            BlacklistChecker checker = new BlacklistChecker(blocking, policies, workers, budget);
+            try {
+                MatchResult r = checker.checkHostAsync(Ipv4.parse("10.0.0.1"), 1, Duration.ofMillis(50))
+                        .get(5, TimeUnit.SECONDS);
+                assertTrue(r.partial());
+                // El coordinador se rindió, pero el worker sigue corriendo con su permiso
+                assertEquals(1, budget.inFlight());
+            } finally {
+                answer.countDown(); // si no, cerrar el executor esperaría al worker para siempre
+            }
+            awaitIdle(budget);
+        }
+    }
+
+    @Test
+    void deadlineYieldsAPartialResultAndStopsTheWorkers() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(2);
+        WorkerBudget budget = new WorkerBudget(2, 1_000);
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            BlacklistChecker checker = new BlacklistChecker(new HangingSource(4, null, interrupted), policies(),
+                    workers, budget);
+            MatchResult r = checker.checkHostAsync(Ipv4.parse("10.0.0.1"), 2, Duration.ofMillis(50))
+                    .get(5, TimeUnit.SECONDS);
+            assertTrue(r.partial());
+            assertTrue(r.trustworthy());
+            assertEquals(0, r.checkedServers());
+            assertEquals(2, r.threads());
+            // Vencido el plazo, las consultas en curso se interrumpen
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+            awaitIdle(budget);
+        }
+    }
+
+    @Test
+    void cancellingTheFutureInterruptsTheWorkersAndFreesTheBudget() throws Exception {
+        CountDownLatch querying = new CountDownLatch(2);
+        CountDownLatch interrupted = new CountDownLatch(2);
+        WorkerBudget budget = new WorkerBudget(2, 1_000);
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            BlacklistChecker checker = new BlacklistChecker(new HangingSource(4, querying, interrupted), policies(),
+                    workers, budget);
+            CompletableFuture<MatchResult> check = checker.checkHostAsync(Ipv4.parse("10.0.0.1"), 2,
+                    Duration.ofSeconds(30));
+            assertTrue(querying.await(5, TimeUnit.SECONDS));
+            assertEquals(2, budget.inFlight());
+
+            // El cliente se fue: no hay que esperar los 30 s del plazo
+            check.cancel(true);
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+            awaitIdle(budget);
+        }
+    }
+
+    @Test
+    void slowPrimaryIsHedgedAndTheFasterAnswerWins() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch primaryCancelled = new CountDownLatch(1);
+        BlacklistDataSource slowFirst = new ScriptedSource(1) {
+            @Override
+            public boolean isInBlackListServer(int serverIndex, String ip) throws InterruptedException {
+                if (calls.getAndIncrement() == 0) {
+                    try {
+                        new CountDownLatch(1).await();
+                    } catch (InterruptedException e) {
+                        primaryCancelled.countDown();
+                        throw e;
+                    }
+                }
+                return true;
+            }
+        };
+        BlacklistChecker checker = new BlacklistChecker(slowFirst, hedgingPolicies());
+        MatchResult r = checker.checkHost(Ipv4.parse("10.0.0.1"), 1);
+
+        assertEquals(List.of(0), r.matches());
+        assertEquals(1, r.checkedServers());
+        assertFalse(r.partial());
+        assertEquals(1, checker.hedgedQueries());
+        assertEquals(0, checker.failedQueries());
+        // La consulta perdedora se cancela
+        assertTrue(primaryCancelled.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void primaryThatFailsFastIsRetriedOnce() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        BlacklistDataSource failsFirst = new ScriptedSource(1) {
+            @Override
+            public boolean isInBlackListServer(int serverIndex, String ip) {
+                if (calls.getAndIncrement() == 0) {
+                    throw new DataSourceUnavailableException("server " + serverIndex + " down");
+                }
+                return true;
+            }
+        };
+        BlacklistChecker checker = new BlacklistChecker(failsFirst, hedgingPolicies());
+        MatchResult r = checker.checkHost(Ipv4.parse("10.0.0.1"), 1);
+
+        assertEquals(List.of(0), r.matches());
+        assertFalse(r.partial());
+        assertEquals(2, calls.get());
+        assertEquals(1, checker.hedgedQueries());
+        assertEquals(0, checker.failedQueries());
+    }
+
+    @Test
+    void serverWhoseQueriesAllFailLeavesTheResultPartial() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        BlacklistDataSource down = new ScriptedSource(1) {
+            @Override
+            public boolean isInBlackListServer(int serverIndex, String ip) {
+                calls.incrementAndGet();
+                throw new DataSourceUnavailableException("server " + serverIndex + " down");
+            }
+        };
+        BlacklistChecker checker = new BlacklistChecker(down, hedgingPolicies());
+        MatchResult r = checker.checkHost(Ipv4.parse("10.0.0.1"), 1);
+
+        assertTrue(r.partial());
+        assertTrue(r.trustworthy());
+        assertEquals(0, r.checkedServers());
+        assertEquals(2, calls.get()); // un solo reintento
+        assertEquals(1, checker.failedQueries());
+    }
+
+    /** Waits for every permit to come back to {@code budget}. */
+    private static void awaitIdle(WorkerBudget budget) throws InterruptedException {
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (budget.inFlight() > 0 && System.nanoTime() < until) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, budget.inFlight());
+    }
+
+    private static Policies policies() {
+        Policies policies = new Policies();
+        policies.setAlarmCount(2);
+        policies.setPartitioning("static");
+        policies.setHedgeAfterMs(0);
+        return policies;
+    }
+
+    private static Policies hedgingPolicies() {
+        Policies policies = policies();
+        policies.setHedgeAfterMs(20);
+        return policies;
+    }
+
+    /** Source without local index; answers and reports are up to each test. */
+    private static class ScriptedSource implements BlacklistDataSource {
+        private final int servers;
+
+        ScriptedSource(int servers) {
+            this.servers = servers;
+        }
+
+        @Override
+        public int getRegisteredServersCount() {
+            return servers;
+        }
+
+        @Override
+        public boolean isInBlackListServer(int serverIndex, String ip) throws InterruptedException {
+            return false;
+        }
+
+        @Override
+        public void reportAsTrustworthy(String ip) {
+        }
+
+        @Override
+        public void reportAsNotTrustworthy(String ip) {
+        }
+    }
+
+    /** Every query blocks until interrupted; counts queries started and interrupts seen. */
+    private static final class HangingSource extends ScriptedSource {
+        private final CountDownLatch querying;
+        private final CountDownLatch interrupted;
+
+        HangingSource(int servers, CountDownLatch querying, CountDownLatch interrupted) {
+            super(servers);
+            this.querying = querying;
+            this.interrupted = interrupted;
+        }
+
+        @Override
+        public boolean isInBlackListServer(int serverIndex, String ip) throws InterruptedException {
+            if (querying != null) {
+                querying.countDown();
+            }
+            try {
+                new CountDownLatch(1).await();
+                return false;
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Runs tasks on virtual threads, but {@code cancel(true)} does not interrupt
+     * them: stands in for work that does not respond to interrupts.
+     */
+    private static final class NonInterruptingExecutor extends AbstractExecutorService {
+        private final ExecutorService delegate = Executors.newVirtualThreadPerTaskExecutor();
+
+        @Override
+        protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+            return new FutureTask<>(callable) {
+                @Override
+                public boolean cancel(boolean mayInterruptIfRunning) {
+                    return super.cancel(false);
+                }
+            };
+        }
+
+        @Override
+        protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+            return newTaskFor(Executors.callable(runnable, value));
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            delegate.execute(command);
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package co.eci.blacklist.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Packing and formatting, including the bounds and the forms {@code parse} must refuse.
+ */
+final class Ipv4Test {
+
+    @Test
+    void parsesInNetworkOrder() {
+        assertEquals(0x01020304, Ipv4.parse("1.2.3.4"));
+        assertEquals(0, Ipv4.parse("0.0.0.0"));
+        assertEquals(0x7FFFFFFF, Ipv4.parse("127.255.255.255"));
+        assertEquals(Integer.MIN_VALUE, Ipv4.parse("128.0.0.0"));
+        assertEquals(-1, Ipv4.parse("255.255.255.255"));
+    }
+
+    @Test
+    void formatRoundTrips() {
+        for (String ip : new String[]{"0.0.0.0", "1.2.3.4", "10.0.0.255", "128.0.0.0", "200.24.34.55",
+                "255.255.255.255"}) {
+            assertEquals(ip, Ipv4.format(Ipv4.parse(ip)));
+        }
+    }
+
+    @Test
+    void rejectsMalformedAddresses() {
+        for (String ip : new String[]{"01.2.3.4", "1.2.3.00", "1..2.3", ".1.2.3", "1.2.3.", "1.2.3", "1.2.3.4.5",
+                "256.1.1.1", "1.2.3.1000", "1.2.3.-4", " 1.2.3.4", "1.2.3.4 ", "a.b.c.d", ""}) {
+            assertThrows(IllegalArgumentException.class, () -> Ipv4.parse(ip), ip);
+        }
+    }
+}
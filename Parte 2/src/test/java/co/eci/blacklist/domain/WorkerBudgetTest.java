@@ -0,0 +1,62 @@
+package co.eci.blacklist.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Admission: partial grants, rejection on timeout and deadline-bounded waits.
+ */
+final class WorkerBudgetTest {
+
+    @Test
+    void grantsWhatIsFreeAndRejectsWhenNothingIs() throws Exception {
+        WorkerBudget budget = new WorkerBudget(3, 20);
+        assertEquals(3, budget.acquire(5));
+        assertEquals(3, budget.inFlight());
+        assertThrows(RejectedExecutionException.class, () -> budget.acquire(1));
+
+        budget.release(2);
+        assertEquals(1, budget.inFlight());
+        // Pide 4, quedan 2 libres: se conforma con esos
+        assertEquals(2, budget.acquire(4));
+        budget.release(3);
+        assertEquals(0, budget.inFlight());
+    }
+
+    @Test
+    void waitingCallerIsAdmittedWhenAPermitComesBack() throws Exception {
+        WorkerBudget budget = new WorkerBudget(1, 5_000);
+        budget.acquire(1);
+        Thread releaser = Thread.ofVirtual().start(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            budget.release(1);
+        });
+        assertEquals(1, budget.acquire(3));
+        releaser.join();
+        assertEquals(1, budget.inFlight());
+    }
+
+    @Test
+    void acquireBeforeGivesUpAtTheDeadlineNotTheAdmissionTimeout() throws Exception {
+        WorkerBudget budget = new WorkerBudget(1, 10_000);
+        budget.acquire(1);
+        long t0 = System.nanoTime();
+        assertThrows(RejectedExecutionException.class,
+                () -> budget.acquireBefore(1, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50)));
+        long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+        assertTrue(waitedMs < 5_000, "waited " + waitedMs + " ms");
+        // Un plazo ya vencido no espera nada
+        assertThrows(RejectedExecutionException.class, () -> budget.acquireBefore(1, System.nanoTime() - 1));
+        budget.release(1);
+        assertEquals(1, budget.acquireBefore(1, System.nanoTime() - 1));
+    }
+}
@@ -0,0 +1,139 @@
+package co.eci.blacklist.infrastructure;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import co.eci.blacklist.domain.Ipv4;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Writer to loader round trips, through the binary format and through the CSV converter.
+ */
+final class BlacklistDatasetTest {
+
+    private static final int SERVERS = 10_000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writerToLoadRoundTrip() throws Exception {
+        // 10.1.x.x y 200.1.x.x: estas últimas son negativas como int y van primero en el archivo
+        Map<Integer, TreeSet<Integer>> expected = new TreeMap<>();
+        Random random = new Random(1);
+        for (int i = 0; i < 3_000; i++) {
+            int ip = Ipv4.parse((i % 2 == 0 ? "10.1." : "200.1.") + (i / 256 % 256) + "." + (i % 256));
+            TreeSet<Integer> servers = expected.computeIfAbsent(ip, k -> new TreeSet<>());
+            int n = i % 500 == 0 ? 2_000 : 1 + random.nextInt(8); // algunas IPs densas (bitmap)
+            while (servers.size() < n) {
+                servers.add(random.nextInt(SERVERS));
+            }
+        }
+        Path file = dir.resolve("blacklist.bin");
+        try (BlacklistDataset.Writer out = new BlacklistDataset.Writer(file, SERVERS)) {
+            for (var e : expected.entrySet()) {
+                for (int server : e.getValue()) {
+                    out.add(e.getKey(), server);
+                }
+            }
+            assertEquals(expected.size(), out.ips());
+        }
+
+        HostBlackListsDataSourceFacade facade = HostBlackListsDataSourceFacade.getInstance();
+        BlacklistDataset.LoadStats stats = BlacklistDataset.load(file, facade, 5);
+        assertEquals(expected.size(), stats.ips());
+        assertEquals(5, stats.parts());
+        assertEquals(SERVERS, facade.getRegisteredServersCount());
+        for (var e : expected.entrySet()) {
+            int[] want = e.getValue().stream().mapToInt(Integer::intValue).toArray();
+            assertArrayEquals(want, facade.serverIndexes(e.getKey()).toArray(), Ipv4.format(e.getKey()));
+        }
+    }
+
+    @Test
+    void writerRejectsUnsortedEntries() throws Exception {
+        Path file = dir.resolve("blacklist.bin");
+        try (BlacklistDataset.Writer out = new BlacklistDataset.Writer(file, SERVERS)) {
+            out.add(Ipv4.parse("10.9.0.2"), 4);
+            assertThrows(IllegalArgumentException.class, () -> out.add(Ipv4.parse("10.9.0.2"), 4));
+            assertThrows(IllegalArgumentException.class, () -> out.add(Ipv4.parse("10.9.0.1"), 7));
+            assertThrows(IllegalArgumentException.class, () -> out.add(Ipv4.parse("10.9.0.3"), SERVERS));
+        }
+    }
+
+    @Test
+    void csvConverterSortsAndDeduplicates() throws Exception {
+        Path csv = dir.resolve("blacklist.csv");
+        Files.writeString(csv, "ip,server\n# comment\n\n10.8.0.2,7\n10.8.0.1,3\n10.8.0.2,1\n10.8.0.2,7\n");
+        Path file = dir.resolve("blacklist.bin");
+        BlacklistDataset.Writer out = BlacklistDatasetConverter.convert(csv, file, SERVERS);
+        assertEquals(3, out.entries());
+        assertEquals(2, out.ips());
+
+        HostBlackListsDataSourceFacade facade = HostBlackListsDataSourceFacade.getInstance();
+        BlacklistDataset.load(file, facade, 2);
+        assertArrayEquals(new int[]{3}, facade.serverIndexes(Ipv4.parse("10.8.0.1")).toArray());
+        assertArrayEquals(new int[]{1, 7}, facade.serverIndexes(Ipv4.parse("10.8.0.2")).toArray());
+        assertEquals(0, facade.serverIndexes(Ipv4.parse("10.8.0.3")).cardinality());
+    }
+
+    @Test
+    void loaderRejectsServerIndexOutOfRange() throws Exception {
+        Path file = dataset("10.7.0.1", "10.7.0.2");
+        overwrite(file, 1, Ipv4.parse("10.7.0.2"), SERVERS);
+        assertCorrupt(file, 1);
+    }
+
+    @Test
+    void loaderRejectsEntriesOutOfOrder() throws Exception {
+        Path file = dataset("10.7.1.1", "10.7.1.2", "10.7.1.3");
+        overwrite(file, 1, Ipv4.parse("10.7.1.1"), 0); // repetida
+        assertCorrupt(file, 1);
+    }
+
+    @Test
+    void loaderRejectsDisorderAcrossPartBoundaries() throws Exception {
+        Path file = dataset("10.7.2.1", "10.7.2.2");
+        overwrite(file, 1, Ipv4.parse("10.7.2.0"), 0);
+        // Con 2 hilos cada entrada queda en su propia parte: el desorden está en el corte
+        assertCorrupt(file, 2);
+    }
+
+    /** Valid file with one entry, on server 0, per IP. */
+    private Path dataset(String... ips) throws IOException {
+        Path file = dir.resolve("dataset.bin");
+        try (BlacklistDataset.Writer out = new BlacklistDataset.Writer(file, SERVERS)) {
+            for (String ip : ips) {
+                out.add(Ipv4.parse(ip), 0);
+            }
+        }
+        return file;
+    }
+
+    /** Replaces entry {@code index} in place, bypassing the writer's checks. */
+    private static void overwrite(Path file, long index, int ip, int server) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer entry = ByteBuffer.allocate(BlacklistDataset.ENTRY_BYTES).putInt(ip).putInt(server).flip();
+            channel.write(entry, BlacklistDataset.HEADER_BYTES + index * BlacklistDataset.ENTRY_BYTES);
+        }
+    }
+
+    private static void assertCorrupt(Path file, int threads) {
+        IOException e = assertThrows(IOException.class,
+                () -> BlacklistDataset.load(file, HostBlackListsDataSourceFacade.getInstance(), threads));
+        assertTrue(e.getMessage().startsWith("Corrupt dataset"), e.getMessage());
+    }
+}
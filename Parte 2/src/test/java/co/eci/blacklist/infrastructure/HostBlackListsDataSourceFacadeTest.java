@@ -0,0 +1,29 @@
+package co.eci.blacklist.infrastructure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * String lookups keep the original lab contract: malformed addresses are
+ * answered, not rejected.
+ */
+final class HostBlackListsDataSourceFacadeTest {
+
+    private final HostBlackListsDataSourceFacade facade = HostBlackListsDataSourceFacade.getInstance();
+
+    @Test
+    void seededAddressIsFoundOnItsServers() {
+        assertTrue(facade.isInBlackListServer(0, "200.24.34.55"));
+        assertFalse(facade.isInBlackListServer(10, "200.24.34.55"));
+    }
+
+    @Test
+    void malformedAddressIsNotBlacklistedInsteadOfThrowing() {
+        assertFalse(facade.isInBlackListServer(0, "not-an-ip"));
+        assertFalse(facade.isInBlackListServer(0, "200.24.34.256"));
+        assertEquals(0, facade.serverIndexes("200.24.34").cardinality());
+    }
+}
@@ -0,0 +1,111 @@
+package co.eci.blacklist.infrastructure;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import co.eci.blacklist.domain.Ipv4;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tombstones, resizing and the special keys: 0 and addresses that are negative as ints.
+ */
+final class IntServerIndexMapTest {
+
+    @Test
+    void reinsertAfterRemoveReusesTheTombstone() {
+        IntServerIndexMap map = new IntServerIndexMap();
+        int ip = Ipv4.parse("10.0.0.1");
+        map.merge(ip, ServerIndexSet.of(new int[]{1, 2}), ServerIndexSet::union);
+        assertArrayEquals(new int[]{1, 2}, all(map.remove(ip)));
+        assertNull(map.get(ip));
+        assertNull(map.remove(ip));
+        assertEquals(0, map.size());
+
+        // Sobre la lápida el valor se guarda tal cual, sin unir con el conjunto borrado
+        ServerIndexSet again = ServerIndexSet.of(new int[]{7});
+        assertSame(again, map.merge(ip, again, ServerIndexSet::union));
+        assertSame(again, map.get(ip));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void resizeDropsTombstones() {
+        IntServerIndexMap map = new IntServerIndexMap();
+        ServerIndexSet set = ServerIndexSet.of(new int[]{3});
+        int base = Ipv4.parse("10.0.0.0");
+        int live = 1_000;
+        int capacity = 0;
+        // Cada ronda llena la tabla con claves nuevas y las borra: sin limpieza se llenaría de lápidas
+        for (int round = 0; round < 100; round++) {
+            for (int i = 0; i < live; i++) {
+                map.merge(base + round * live + i, set, ServerIndexSet::union);
+            }
+            capacity = Math.max(capacity, map.capacity());
+            for (int i = 0; i < live; i++) {
+                map.remove(base + round * live + i);
+            }
+        }
+        assertEquals(0, map.size());
+        assertTrue(capacity <= 2_048, "capacity grew to " + capacity);
+        assertNull(map.get(base)); // la búsqueda termina: quedan huecos vacíos
+        assertNull(map.get(base + 100 * live));
+
+        map.merge(base, set, ServerIndexSet::union);
+        assertSame(set, map.get(base));
+    }
+
+    @Test
+    void keyZeroIsStoredApart() {
+        IntServerIndexMap map = new IntServerIndexMap();
+        assertNull(map.get(0));
+        map.merge(0, ServerIndexSet.of(new int[]{1}), ServerIndexSet::union);
+        map.merge(0, ServerIndexSet.of(new int[]{4}), ServerIndexSet::union);
+        assertArrayEquals(new int[]{1, 4}, all(map.get(0)));
+        assertEquals(1, map.size());
+
+        assertArrayEquals(new int[]{1, 4}, all(map.remove(0)));
+        assertNull(map.get(0));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    void addressesFrom128AreNegativeKeys() {
+        IntServerIndexMap map = new IntServerIndexMap();
+        int[] ips = {Ipv4.parse("128.0.0.0"), Ipv4.parse("200.24.34.55"), Ipv4.parse("255.255.255.255")};
+        for (int i = 0; i < ips.length; i++) {
+            assertTrue(ips[i] < 0);
+            map.merge(ips[i], ServerIndexSet.of(new int[]{i}), ServerIndexSet::union);
+        }
+        for (int i = 0; i < ips.length; i++) {
+            assertArrayEquals(new int[]{i}, all(map.get(ips[i])));
+        }
+        assertNull(map.get(Ipv4.parse("127.255.255.255")));
+        assertArrayEquals(new int[]{2}, all(map.remove(-1)));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void mergeAllUnionsWithExistingEntries() {
+        IntServerIndexMap map = new IntServerIndexMap();
+        map.merge(5, ServerIndexSet.of(new int[]{1}), ServerIndexSet::union);
+        int n = 5_000; // más que la capacidad inicial: se redimensiona una vez, antes del lote
+        int[] ips = new int[n + 1];
+        ServerIndexSet[] sets = new ServerIndexSet[n + 1];
+        for (int i = 0; i < n; i++) {
+            ips[i] = i + 1;
+            sets[i] = ServerIndexSet.of(new int[]{2});
+        }
+        map.mergeAll(ips, sets, n, ServerIndexSet::union);
+        assertEquals(n, map.size());
+        assertArrayEquals(new int[]{1, 2}, all(map.get(5)));
+        assertArrayEquals(new int[]{2}, all(map.get(n)));
+        assertNull(map.get(n + 1));
+    }
+
+    private static int[] all(ServerIndexSet set) {
+        return set.positionsInRange(0, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,30 @@
+package co.eci.blacklist.infrastructure;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Range queries on both representations, including limits near Integer.MAX_VALUE.
+ */
+final class ServerIndexSetTest {
+
+    @Test
+    void sortedRangeWithHugeLimitDoesNotOverflow() {
+        ServerIndexSet set = ServerIndexSet.of(new int[]{1, 5, 9, 10_000});
+        assertArrayEquals(new int[]{5, 9, 10_000}, set.positionsInRange(2, Integer.MAX_VALUE, Integer.MAX_VALUE));
+        assertArrayEquals(new int[]{5}, set.positionsInRange(2, 10, 1));
+    }
+
+    @Test
+    void bitmapRangeWithHugeLimit() {
+        int[] dense = new int[100];
+        for (int i = 0; i < dense.length; i++) {
+            dense[i] = i + 3;
+        }
+        ServerIndexSet set = ServerIndexSet.of(dense);
+        assertEquals(98, set.positionsInRange(5, Integer.MAX_VALUE, Integer.MAX_VALUE).length);
+        assertEquals(98, set.countInRange(5, Integer.MAX_VALUE));
+    }
+}
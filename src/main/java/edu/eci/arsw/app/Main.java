@@ -1,7 +1,12 @@
 package edu.eci.arsw.app;
 
+import edu.eci.arsw.bench.ReadHeavyBenchmark;
+import edu.eci.arsw.bench.TransferBenchmark;
+import edu.eci.arsw.demos.AuditDemo;
 import edu.eci.arsw.demos.DeadlockDemo;
+import edu.eci.arsw.demos.DurableLedgerDemo;
 import edu.eci.arsw.demos.OrderedTransferDemo;
+import edu.eci.arsw.demos.ShardedLedgerDemo;
 import edu.eci.arsw.demos.TryLockTransferDemo;
 
 /**
@@ -26,16 +31,25 @@ public final class Main {
           case "1" -> DeadlockDemo.run();
           case "2" -> OrderedTransferDemo.run();
           case "3" -> TryLockTransferDemo.run();
-          default -> System.out.println("Use -Ddemo=1|2|3");
+          case "4" -> ShardedLedgerDemo.run();
+          case "5" -> DurableLedgerDemo.run();
+          case "6" -> AuditDemo.run();
+          default -> System.out.println("Use -Ddemo=1|2|3|4|5|6");
         }
       }
+      case "bench" -> {
+        if ("reads".equals(System.getProperty("bench", "transfers")))
+          ReadHeavyBenchmark.run();
+        else
+          TransferBenchmark.run();
+      }
       case "immortals", "ui" -> {
         int n = Integer.getInteger("count", 8);
         String fight = System.getProperty("fight", "ordered");
         javax.swing.SwingUtilities.invokeLater(
             () -> new edu.eci.arsw.highlandersim.ControlFrame(n, fight));
       }
-      default -> System.out.println("Use -Dmode=immortals|demos|ui");
+      default -> System.out.println("Use -Dmode=immortals|demos|bench|ui");
     }
   }
 }
@@ -0,0 +1,102 @@
+package edu.eci.arsw.bench;
+
+/**
+ * Log-linear latency histogram in the spirit of HdrHistogram: values are
+ * grouped by power of two and each power of two is split into 64 linear
+ * sub-buckets, giving about 1.5% relative precision over the whole
+ * {@code long} range with a fixed 30 KB footprint.
+ * <p>
+ * Not thread-safe: record into one histogram per thread and
+ * {@link #add(LatencyHistogram) merge} them afterwards.
+ */
+public final class LatencyHistogram {
+  private static final int SUB_BITS = 6;
+  private static final int SUB = 1 << SUB_BITS;
+  private static final int BUCKETS = (64 - SUB_BITS) * SUB;
+
+  private final long[] counts = new long[BUCKETS];
+  private long total;
+  private long max;
+
+  /**
+   * Records one value.
+   *
+   * @param value non-negative value, typically nanoseconds
+   */
+  public void record(long value) {
+    long v = Math.max(0, value);
+    counts[indexOf(v)]++;
+    total++;
+    if (v > max)
+      max = v;
+  }
+
+  /**
+   * Adds all values recorded by another histogram to this one.
+   *
+   * @param other histogram to merge
+   */
+  public void add(LatencyHistogram other) {
+    for (int i = 0; i < BUCKETS; i++)
+      counts[i] += other.counts[i];
+    total += other.total;
+    max = Math.max(max, other.max);
+  }
+
+  /**
+   * Returns the number of recorded values.
+   *
+   * @return value count
+   */
+  public long count() {
+    return total;
+  }
+
+  /**
+   * Returns the largest recorded value.
+   *
+   * @return maximum value
+   */
+  public long max() {
+    return max;
+  }
+
+  /**
+   * Returns the value at the given quantile, e.g. 0.99 for p99.
+   *
+   * @param quantile quantile in {@code [0, 1]}
+   * @return approximate value at that quantile, or 0 if empty
+   */
+  public long percentile(double quantile) {
+    if (total == 0)
+      return 0;
+    long rank = Math.max(1, (long) Math.ceil(quantile * total));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts[i];
+      if (seen >= rank)
+        return Math.min(max, valueOf(i));
+    }
+    return max;
+  }
+
+  private static int indexOf(long v) {
+    if (v < SUB)
+      return (int) v;
+    int msb = 63 - Long.numberOfLeadingZeros(v);
+    int bucket = msb - SUB_BITS + 1;
+    int sub = (int) (v >>> (msb - SUB_BITS)) - SUB;
+    return bucket * SUB + sub;
+  }
+
+  /** Returns the midpoint of the values mapped to {@code index}. */
+  private static long valueOf(int index) {
+    if (index < SUB)
+      return index;
+    int bucket = index / SUB;
+    int sub = index % SUB;
+    int shift = bucket - 1;
+    long lower = (long) (SUB + sub) << shift;
+    return lower + ((1L << shift) >> 1);
+  }
+}
@@ -0,0 +1,111 @@
+package edu.eci.arsw.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntToLongFunction;
+
+import edu.eci.arsw.core.BankAccount;
+import edu.eci.arsw.core.StampedBankAccount;
+import edu.eci.arsw.core.TransferService;
+
+/**
+ * Read-heavy benchmark: many threads query balances while a few writers keep
+ * transferring. Compares consistent reads through the exclusive
+ * {@link BankAccount#lock()} with optimistic reads of
+ * {@link StampedBankAccount} for growing reader counts.
+ * <p>
+ * Configured with {@code accounts} (default 64), {@code writers} (default 1),
+ * {@code readers} (comma separated, default 1, 2, 4 ... 2 x cores) and
+ * {@code durationSec} per run (default 3).
+ */
+public final class ReadHeavyBenchmark {
+  private ReadHeavyBenchmark() {
+  }
+
+  /**
+   * Runs both account modes for every reader count and prints read and
+   * transfer throughput.
+   *
+   * @throws Exception if interrupted
+   */
+  public static void run() throws Exception {
+    int accountCount = Integer.getInteger("accounts", 64);
+    int writers = Integer.getInteger("writers", 1);
+    int durationSec = Integer.getInteger("durationSec", 3);
+    List<Integer> readerCounts = new ArrayList<>();
+    String readers = System.getProperty("readers");
+    if (readers != null) {
+      for (String r : readers.split(","))
+        readerCounts.add(Integer.valueOf(r.trim()));
+    } else {
+      for (int r = 1; r <= 2 * Runtime.getRuntime().availableProcessors(); r *= 2)
+        readerCounts.add(r);
+    }
+
+    for (int readerCount : readerCounts) {
+      BankAccount[] locked = new BankAccount[accountCount];
+      StampedBankAccount[] stamped = new StampedBankAccount[accountCount];
+      for (int i = 0; i < accountCount; i++) {
+        locked[i] = new BankAccount(i, 1_000_000);
+        stamped[i] = new StampedBankAccount(i, 1_000_000);
+      }
+      measure("reentrant", readerCount, writers, durationSec, i -> {
+        var lock = locked[i].lock();
+        lock.lock();
+        try {
+          return locked[i].balance();
+        } finally {
+          lock.unlock();
+        }
+      }, () -> {
+        var rnd = ThreadLocalRandom.current();
+        TransferService.transferOrdered(locked[rnd.nextInt(accountCount)], locked[rnd.nextInt(accountCount)], 1);
+      }, accountCount);
+      measure("stamped", readerCount, writers, durationSec, i -> stamped[i].balance(), () -> {
+        var rnd = ThreadLocalRandom.current();
+        TransferService.transferStamped(stamped[rnd.nextInt(accountCount)], stamped[rnd.nextInt(accountCount)], 1);
+      }, accountCount);
+    }
+  }
+
+  private static void measure(String mode, int readers, int writers, int durationSec, IntToLongFunction read,
+      Runnable write, int accountCount) throws InterruptedException {
+    var running = new AtomicBoolean(true);
+    var reads = new LongAdder();
+    var writes = new LongAdder();
+    List<Thread> threads = new ArrayList<>();
+    for (int r = 0; r < readers; r++) {
+      threads.add(Thread.ofPlatform().name("reader-", r).start(() -> {
+        var rnd = ThreadLocalRandom.current();
+        long local = 0;
+        long sink = 0;
+        while (running.get()) {
+          sink += read.applyAsLong(rnd.nextInt(accountCount));
+          local++;
+        }
+        reads.add(local + (sink == Long.MIN_VALUE ? 1 : 0)); // keep sink alive
+      }));
+    }
+    for (int w = 0; w < writers; w++) {
+      threads.add(Thread.ofPlatform().name("writer-", w).start(() -> {
+        long local = 0;
+        while (running.get()) {
+          write.run();
+          local++;
+        }
+        writes.add(local);
+      }));
+    }
+    TimeUnit.SECONDS.sleep(durationSec);
+    running.set(false);
+    for (Thread t : threads)
+      t.join();
+    System.out.printf(Locale.ROOT, "mode=%s readers=%d writers=%d reads=%.0f ops/s transfers=%.0f ops/s%n",
+        mode, readers, writers, reads.sum() / (double) durationSec, writes.sum() / (double) durationSec);
+  }
+}
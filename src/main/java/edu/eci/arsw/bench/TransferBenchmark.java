@@ -0,0 +1,190 @@
+package edu.eci.arsw.bench;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import edu.eci.arsw.core.BankAccount;
+import edu.eci.arsw.core.FlatCombiningTransferService;
+import edu.eci.arsw.core.RetryPolicy;
+import edu.eci.arsw.core.TransferService;
+
+/**
+ * Load generator for {@link TransferService}. For every combination of
+ * account count, skew, strategy and thread kind it runs transfers for a fixed
+ * time and reports throughput, latency percentiles, retries and whether the
+ * total amount of money was conserved.
+ * <p>
+ * Configured with system properties (lists are comma separated):
+ * <ul>
+ * <li>{@code accounts} (default {@code 2,1000,1000000})</li>
+ * <li>{@code skew} {@code uniform|zipf} (default both), {@code theta} (0.99)</li>
+ * <li>{@code strategies} {@code naive|ordered|trylock|combining} (default
+ * {@code ordered,trylock}; {@code naive} may deadlock, which is reported)</li>
+ * <li>{@code threads} {@code platform|virtual} (default both),
+ * {@code threadCount} (default 2 x cores)</li>
+ * <li>{@code retry} policy for trylock (default {@code jitter}),
+ * {@code durationSec} per run (default 5)</li>
+ * </ul>
+ */
+public final class TransferBenchmark {
+  private static final long INITIAL_BALANCE = 1_000_000_000L;
+  private static final Duration TRYLOCK_MAX_WAIT = Duration.ofSeconds(5);
+
+  private TransferBenchmark() {
+  }
+
+  /** A transfer strategy under test; returns the number of retries. */
+  @FunctionalInterface
+  private interface Strategy {
+    int transfer(BankAccount from, BankAccount to) throws InterruptedException;
+  }
+
+  /**
+   * Runs the configured benchmark matrix and prints one line per run.
+   *
+   * @throws Exception if interrupted
+   */
+  public static void run() throws Exception {
+    List<Integer> accountCounts = ints(System.getProperty("accounts", "2,1000,1000000"));
+    List<String> skews = strings(System.getProperty("skew", "uniform,zipf"));
+    double theta = Double.parseDouble(System.getProperty("theta", "0.99"));
+    List<String> strategies = strings(System.getProperty("strategies", "ordered,trylock"));
+    List<String> threadKinds = strings(System.getProperty("threads", "platform,virtual"));
+    int threadCount = Integer.getInteger("threadCount", 2 * Runtime.getRuntime().availableProcessors());
+    int durationSec = Integer.getInteger("durationSec", 5);
+    RetryPolicy retry = RetryPolicy.named(System.getProperty("retry", "jitter"));
+
+    for (int accounts : accountCounts) {
+      for (String skew : skews) {
+        LongSupplier picker = picker(skew, accounts, theta);
+        for (String strategy : strategies) {
+          for (String threads : threadKinds) {
+            runOnce(accounts, skew, picker, strategy, strategy(strategy, retry), threads, threadCount, durationSec);
+          }
+        }
+      }
+    }
+  }
+
+  private static void runOnce(int accountCount, String skew, LongSupplier picker, String strategyName,
+      Strategy strategy, String threadKind, int threadCount, int durationSec) throws InterruptedException {
+    BankAccount[] accounts = new BankAccount[accountCount];
+    for (int i = 0; i < accountCount; i++)
+      accounts[i] = new BankAccount(i, INITIAL_BALANCE);
+
+    AtomicLong retries = new AtomicLong();
+    AtomicLong rejected = new AtomicLong();
+    LatencyHistogram[] histograms = new LatencyHistogram[threadCount];
+    Thread.Builder builder = "virtual".equalsIgnoreCase(threadKind)
+        ? Thread.ofVirtual().name("bench-v-", 0)
+        : Thread.ofPlatform().daemon().name("bench-p-", 0);
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSec);
+    List<Thread> workers = new ArrayList<>(threadCount);
+    for (int t = 0; t < threadCount; t++) {
+      LatencyHistogram histogram = histograms[t] = new LatencyHistogram();
+      workers.add(builder.start(() -> {
+        long localRetries = 0;
+        long localRejected = 0;
+        try {
+          while (System.nanoTime() < deadline) {
+            BankAccount from = accounts[(int) picker.getAsLong()];
+            BankAccount to = accounts[(int) picker.getAsLong()];
+            if (from == to)
+              continue;
+            long start = System.nanoTime();
+            try {
+              localRetries += strategy.transfer(from, to);
+            } catch (IllegalArgumentException insufficient) {
+              localRejected++;
+            }
+            histogram.record(System.nanoTime() - start);
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } finally {
+          retries.addAndGet(localRetries);
+          rejected.addAndGet(localRejected);
+        }
+      }));
+    }
+
+    long start = System.nanoTime();
+    boolean deadlocked = false;
+    for (Thread w : workers) {
+      long grace = Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()) + 2_000);
+      w.join(grace);
+      if (w.isAlive())
+        deadlocked = true;
+    }
+    double elapsedSec = Math.max(durationSec, (System.nanoTime() - start) / 1e9);
+
+    LatencyHistogram all = new LatencyHistogram();
+    if (!deadlocked)
+      for (LatencyHistogram h : histograms)
+        all.add(h);
+    long total = 0;
+    for (BankAccount a : accounts)
+      total += a.balance();
+    boolean conserved = total == INITIAL_BALANCE * accountCount;
+
+    System.out.printf(Locale.ROOT,
+        "strategy=%s accounts=%d skew=%s threads=%s x%d ops=%d throughput=%.0f ops/s "
+            + "p50=%.1fus p90=%.1fus p99=%.1fus p999=%.1fus max=%.1fus retries=%d rejected=%d conserved=%s%s%n",
+        strategyName, accountCount, skew, threadKind, threadCount, all.count(), all.count() / elapsedSec,
+        micros(all.percentile(0.50)), micros(all.percentile(0.90)), micros(all.percentile(0.99)),
+        micros(all.percentile(0.999)), micros(all.max()), retries.get(), rejected.get(), conserved,
+        deadlocked ? " DEADLOCKED" : "");
+  }
+
+  private static Strategy strategy(String name, RetryPolicy retry) {
+    return switch (name.toLowerCase(Locale.ROOT)) {
+      case "naive" -> (from, to) -> {
+        TransferService.transferNaive(from, to, 1);
+        return 0;
+      };
+      case "ordered" -> (from, to) -> {
+        TransferService.transferOrdered(from, to, 1);
+        return 0;
+      };
+      case "trylock" -> (from, to) -> TransferService.transferTryLock(from, to, 1, TRYLOCK_MAX_WAIT, retry).retries();
+      case "combining" -> {
+        var service = new FlatCombiningTransferService();
+        yield (from, to) -> {
+          service.transfer(from, to, 1);
+          return 0;
+        };
+      }
+      default -> throw new IllegalArgumentException("Unknown strategy: " + name);
+    };
+  }
+
+  private static LongSupplier picker(String skew, int accounts, double theta) {
+    return switch (skew.toLowerCase(Locale.ROOT)) {
+      case "uniform" -> () -> ThreadLocalRandom.current().nextInt(accounts);
+      case "zipf" -> new ZipfianGenerator(accounts, theta)::next;
+      default -> throw new IllegalArgumentException("Unknown skew: " + skew);
+    };
+  }
+
+  private static double micros(long nanos) {
+    return nanos / 1_000.0;
+  }
+
+  private static List<String> strings(String csv) {
+    List<String> out = new ArrayList<>();
+    for (String s : csv.split(","))
+      if (!s.isBlank())
+        out.add(s.trim());
+    return out;
+  }
+
+  private static List<Integer> ints(String csv) {
+    return strings(csv).stream().map(Integer::valueOf).toList();
+  }
+}
@@ -0,0 +1,70 @@
+package edu.eci.arsw.bench;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Zipfian index generator (Gray et al., as used by YCSB): index 0 is the most
+ * popular, index 1 the second most popular and so on. With the usual
+ * {@code theta = 0.99} a handful of indices receive most of the draws.
+ * Immutable and safe to share between threads.
+ */
+public final class ZipfianGenerator {
+  private final long n;
+  private final double theta;
+  private final double zetan;
+  private final double alpha;
+  private final double eta;
+  private final double half;
+
+  /**
+   * Creates a generator over {@code [0, n)}. Precomputing the zeta constant
+   * is linear in {@code n}.
+   *
+   * @param n number of items, must be positive
+   * @param theta skew in {@code (0, 1)}; higher is more skewed
+   */
+  public ZipfianGenerator(long n, double theta) {
+    if (n <= 0)
+      throw new IllegalArgumentException("n must be > 0");
+    if (theta <= 0 || theta >= 1)
+      throw new IllegalArgumentException("theta must be in (0, 1)");
+    this.n = n;
+    this.theta = theta;
+    this.zetan = zeta(n, theta);
+    this.alpha = 1.0 / (1.0 - theta);
+    this.half = Math.pow(0.5, theta);
+    double zeta2 = zeta(Math.min(2, n), theta);
+    this.eta = n <= 2 ? 0 : (1 - Math.pow(2.0 / n, 1 - theta)) / (1 - zeta2 / zetan);
+  }
+
+  /**
+   * Draws the next index.
+   *
+   * @return index in {@code [0, n)}
+   */
+  public long next() {
+    double u = ThreadLocalRandom.current().nextDouble();
+    double uz = u * zetan;
+    if (uz < 1.0)
+      return 0;
+    if (uz < 1.0 + half)
+      return Math.min(1, n - 1);
+    return Math.min(n - 1, (long) (n * Math.pow(eta * u - eta + 1, alpha)));
+  }
+
+  /**
+   * Returns the configured skew.
+   *
+   * @return theta
+   */
+  public double theta() {
+    return theta;
+  }
+
+  private static double zeta(long n, double theta) {
+    double sum = 0;
+    for (long i = 1; i <= n; i++)
+      sum += 1 / Math.pow(i, theta);
+    return sum;
+  }
+}
@@ -0,0 +1,71 @@
+package edu.eci.arsw.core;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Derives the tryLock timeout from recent transfers. It keeps exponentially
+ * weighted moving averages of the attempts and the wait time per transfer:
+ * under light contention the timeout stays short and retries are cheap, and
+ * as contention grows threads wait longer in the lock queue instead of
+ * spinning through failed attempts.
+ */
+final class AdaptiveTimeoutPolicy implements RetryPolicy {
+  /** Fixed-point scale used to keep the averages in atomic longs. */
+  private static final long SCALE = 1_000;
+  /** EWMA smoothing: each sample contributes 1/8 of the new average. */
+  private static final int SMOOTHING_SHIFT = 3;
+
+  private final long minTimeoutNanos;
+  private final long maxTimeoutNanos;
+  private final AtomicLong avgAttemptsScaled = new AtomicLong(SCALE);
+  private final AtomicLong avgWaitNanos = new AtomicLong();
+
+  /**
+   * @param minTimeout lower bound for the tryLock timeout
+   * @param maxTimeout upper bound for the tryLock timeout
+   */
+  AdaptiveTimeoutPolicy(Duration minTimeout, Duration maxTimeout) {
+    if (minTimeout.isNegative() || minTimeout.isZero() || maxTimeout.compareTo(minTimeout) < 0)
+      throw new IllegalArgumentException("invalid timeout range");
+    this.minTimeoutNanos = minTimeout.toNanos();
+    this.maxTimeoutNanos = maxTimeout.toNanos();
+  }
+
+  @Override
+  public Backoff start() {
+    final long timeout = currentTimeoutNanos();
+    return new Backoff() {
+      @Override
+      public long lockTimeoutNanos() {
+        return timeout;
+      }
+
+      @Override
+      public void await() throws InterruptedException {
+        // full jitter bounded by the current timeout keeps retries decorrelated
+        Backoffs.parkNanos(ThreadLocalRandom.current().nextLong(timeout / 4, timeout + 1));
+      }
+    };
+  }
+
+  @Override
+  public void record(TransferStats stats) {
+    long attempts = stats.attempts() * SCALE;
+    avgAttemptsScaled.getAndUpdate(avg -> avg + ((attempts - avg) >> SMOOTHING_SHIFT));
+    long wait = stats.waitNanos();
+    avgWaitNanos.getAndUpdate(avg -> avg + ((wait - avg) >> SMOOTHING_SHIFT));
+  }
+
+  /**
+   * Returns the timeout the next transfer will use: twice the average wait,
+   * amplified by the average number of attempts and clamped to the bounds.
+   *
+   * @return timeout in nanoseconds
+   */
+  long currentTimeoutNanos() {
+    long scaled = 2 * avgWaitNanos.get() * avgAttemptsScaled.get() / SCALE;
+    return Math.max(minTimeoutNanos, Math.min(maxTimeoutNanos, scaled));
+  }
+}
@@ -0,0 +1,25 @@
+package edu.eci.arsw.core;
+
+/**
+ * Result of a {@link BalanceAuditor} run.
+ *
+ * @param epoch audit epoch that defined the consistent cut
+ * @param accounts number of accounts audited
+ * @param total sum of the balances at the cut
+ * @param expected total the caller expected
+ * @param durationNanos wall-clock time of the audit
+ * @param lockWaitNanos time the auditor spent waiting for account locks, a
+ *        measure of how much it competed with transfers
+ */
+public record AuditReport(long epoch, int accounts, long total, long expected, long durationNanos,
+    long lockWaitNanos) {
+
+  /**
+   * Returns whether the audited total equals the expected total.
+   *
+   * @return true if money was conserved
+   */
+  public boolean conserved() {
+    return total == expected;
+  }
+}
@@ -0,0 +1,29 @@
+package edu.eci.arsw.core;
+
+import java.util.concurrent.locks.LockSupport;
+
+/** Small waiting helpers shared by the {@link RetryPolicy} implementations. */
+final class Backoffs {
+  private Backoffs() {
+  }
+
+  /**
+   * Parks the current thread for roughly {@code nanos}, honouring interrupts.
+   *
+   * @param nanos time to park in nanoseconds
+   * @throws InterruptedException if the thread is interrupted
+   */
+  static void parkNanos(long nanos) throws InterruptedException {
+    if (Thread.interrupted())
+      throw new InterruptedException();
+    long deadline = System.nanoTime() + nanos;
+    long remaining = nanos;
+    // parkNanos may return spuriously; keep parking until the deadline
+    while (remaining > 0) {
+      LockSupport.parkNanos(remaining);
+      if (Thread.interrupted())
+        throw new InterruptedException();
+      remaining = deadline - System.nanoTime();
+    }
+  }
+}
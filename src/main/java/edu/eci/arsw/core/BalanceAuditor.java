@@ -0,0 +1,62 @@
+package edu.eci.arsw.core;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sums account balances at a consistent cut while transfers keep running.
+ * <p>
+ * An audit starts a new epoch. Every transfer reads the epoch while holding
+ * both of its locks and, before changing an account for the first time in
+ * that epoch, saves the account's previous balance. The auditor then visits
+ * the accounts one at a time under their own lock and takes the saved value,
+ * or the current balance if no transfer of the new epoch touched the account
+ * yet. Each transfer is therefore counted entirely before or entirely after
+ * the cut, and at most one account is locked by the auditor at any time, so
+ * traffic never stops.
+ */
+public final class BalanceAuditor {
+  private static volatile long epoch;
+  /** Audits are serialized: a newer epoch would overwrite saved balances. */
+  private static final ReentrantLock AUDIT_LOCK = new ReentrantLock();
+
+  private BalanceAuditor() {
+  }
+
+  /** Returns the current audit epoch; read by transfers under their locks. */
+  static long currentEpoch() {
+    return epoch;
+  }
+
+  /**
+   * Audits the given accounts and compares their total with
+   * {@code expectedTotal}. Transfers touching these accounts must go through
+   * {@link TransferService} or {@link FlatCombiningTransferService}.
+   *
+   * @param accounts accounts to audit
+   * @param expectedTotal total amount of money that should be present
+   * @return the audit report
+   */
+  public static AuditReport audit(Collection<BankAccount> accounts, long expectedTotal) {
+    AUDIT_LOCK.lock();
+    try {
+      long start = System.nanoTime();
+      long current = ++epoch;
+      long total = 0;
+      long lockWait = 0;
+      for (BankAccount account : accounts) {
+        long before = System.nanoTime();
+        account.lock().lock();
+        lockWait += System.nanoTime() - before;
+        try {
+          total += account.auditedBalance(current);
+        } finally {
+          account.lock().unlock();
+        }
+      }
+      return new AuditReport(current, accounts.size(), total, expectedTotal, System.nanoTime() - start, lockWait);
+    } finally {
+      AUDIT_LOCK.unlock();
+    }
+  }
+}
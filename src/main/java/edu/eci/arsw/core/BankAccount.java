@@ -11,6 +11,9 @@ public final class BankAccount {
   private final long id;
   private long balance;
   private final ReentrantLock lock = new ReentrantLock();
+  // Copy-on-first-write state for BalanceAuditor, guarded by lock
+  private long auditEpoch;
+  private long auditBalance;
 
   /**
    * Creates a bank account with an id and an initial balance.
@@ -34,7 +37,8 @@ public final class BankAccount {
 
   /**
    * Returns the current balance. Note: not synchronized; callers should ensure
-   * appropriate locking if required.
+   * appropriate locking if required. Use {@link BalanceAuditor} to sum many
+   * accounts consistently while transfers are running.
    *
    * @return balance
    */
@@ -52,6 +56,25 @@ public final class BankAccount {
   }
 
   // Internal helpers used by TransferService while holding locks
+
+  /**
+   * Saves the balance as it was at the start of audit {@code epoch}, unless
+   * it was already saved for that epoch. Must be called with the lock held
+   * before the balance changes.
+   */
+  void preserveForAudit(long epoch) {
+    if (auditEpoch < epoch) {
+      auditEpoch = epoch;
+      auditBalance = balance;
+    }
+  }
+
+  /** Returns the balance at the start of audit {@code epoch}; lock held. */
+  long auditedBalance(long epoch) {
+    preserveForAudit(epoch);
+    return auditBalance;
+  }
+
   void depositInternal(long amount) {
     balance += amount;
   }
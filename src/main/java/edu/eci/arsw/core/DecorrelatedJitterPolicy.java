@@ -0,0 +1,47 @@
+package edu.eci.arsw.core;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with decorrelated jitter: each sleep is drawn from
+ * {@code [base, previous * 3)} and capped. Retrying threads spread out
+ * quickly instead of waking up in lock-step, which avoids retry storms.
+ */
+final class DecorrelatedJitterPolicy implements RetryPolicy {
+  private final long lockTimeoutNanos;
+  private final long baseNanos;
+  private final long capNanos;
+
+  /**
+   * @param lockTimeout timeout for each tryLock
+   * @param base smallest backoff
+   * @param cap largest backoff
+   */
+  DecorrelatedJitterPolicy(Duration lockTimeout, Duration base, Duration cap) {
+    if (base.isNegative() || base.isZero() || cap.compareTo(base) < 0)
+      throw new IllegalArgumentException("invalid backoff range");
+    this.lockTimeoutNanos = lockTimeout.toNanos();
+    this.baseNanos = base.toNanos();
+    this.capNanos = cap.toNanos();
+  }
+
+  @Override
+  public Backoff start() {
+    return new Backoff() {
+      private long previous = baseNanos;
+
+      @Override
+      public long lockTimeoutNanos() {
+        return lockTimeoutNanos;
+      }
+
+      @Override
+      public void await() throws InterruptedException {
+        long upper = Math.max(baseNanos + 1, Math.min(capNanos, previous * 3));
+        previous = ThreadLocalRandom.current().nextLong(baseNanos, upper);
+        Backoffs.parkNanos(previous);
+      }
+    };
+  }
+}
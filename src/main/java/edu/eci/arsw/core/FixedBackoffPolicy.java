@@ -0,0 +1,42 @@
+package edu.eci.arsw.core;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Fixed tryLock timeout followed by a uniformly random sleep. This is the
+ * original {@code transferTryLock} behaviour, kept as a baseline.
+ */
+final class FixedBackoffPolicy implements RetryPolicy {
+  private final long lockTimeoutNanos;
+  private final int minSleepMs;
+  private final int maxSleepMs;
+
+  /**
+   * @param lockTimeout timeout for each tryLock
+   * @param minSleepMs minimum sleep between attempts (inclusive)
+   * @param maxSleepMs maximum sleep between attempts (exclusive)
+   */
+  FixedBackoffPolicy(Duration lockTimeout, int minSleepMs, int maxSleepMs) {
+    if (minSleepMs < 0 || maxSleepMs <= minSleepMs)
+      throw new IllegalArgumentException("invalid sleep range");
+    this.lockTimeoutNanos = lockTimeout.toNanos();
+    this.minSleepMs = minSleepMs;
+    this.maxSleepMs = maxSleepMs;
+  }
+
+  @Override
+  public Backoff start() {
+    return new Backoff() {
+      @Override
+      public long lockTimeoutNanos() {
+        return lockTimeoutNanos;
+      }
+
+      @Override
+      public void await() throws InterruptedException {
+        Thread.sleep(ThreadLocalRandom.current().nextInt(minSleepMs, maxSleepMs));
+      }
+    };
+  }
+}
@@ -0,0 +1,203 @@
+package edu.eci.arsw.core;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Ordered transfers with flat combining for hot accounts.
+ * <p>
+ * Instead of every thread acquiring the lock of a hot account in turn, a
+ * thread publishes its transfer in a slot array that belongs to the account
+ * with the lower id (the one {@link TransferService#transferOrdered} locks
+ * first). Whichever thread gets that account's lock becomes the combiner and
+ * applies all published requests in one pass, taking each request's second
+ * lock in id order, so the global lock order and deadlock freedom are
+ * preserved. Waiting threads spin on their own request instead of queuing on
+ * the lock. When all slots are taken the transfer falls back to
+ * {@code transferOrdered}.
+ * <p>
+ * Slot arrays are keyed weakly by account identity and dropped once their
+ * account is garbage collected, so a long-running service does not keep one
+ * per account it has ever seen.
+ */
+public final class FlatCombiningTransferService {
+  private static final int SPINS_BEFORE_PARK = 128;
+  private static final long PARK_NANOS = 20_000;
+
+  private final int slotsPerAccount;
+  private final Map<AccountKey, Combiner> combiners = new ConcurrentHashMap<>();
+  private final ReferenceQueue<BankAccount> collected = new ReferenceQueue<>();
+  private final LongAdder passes = new LongAdder();
+  private final LongAdder combined = new LongAdder();
+
+  /** Creates a service with two slots per available processor. */
+  public FlatCombiningTransferService() {
+    this(2 * Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Creates a service with the given number of publication slots per account.
+   *
+   * @param slotsPerAccount slots per account, must be positive
+   */
+  public FlatCombiningTransferService(int slotsPerAccount) {
+    if (slotsPerAccount <= 0)
+      throw new IllegalArgumentException("slotsPerAccount must be > 0");
+    this.slotsPerAccount = slotsPerAccount;
+  }
+
+  /**
+   * Transfers money with the same semantics as
+   * {@link TransferService#transferOrdered}, possibly applied by another
+   * thread that currently combines requests for the same account.
+   *
+   * @param from source account
+   * @param to destination account
+   * @param amount amount to transfer
+   * @throws IllegalArgumentException if funds are insufficient
+   */
+  public void transfer(BankAccount from, BankAccount to, long amount) {
+    Objects.requireNonNull(from);
+    Objects.requireNonNull(to);
+    BankAccount first = from.id() < to.id() ? from : to;
+    Combiner combiner = combiner(first);
+    Request request = new Request(from, to, first == from ? to : from, amount);
+    if (!combiner.publish(request)) {
+      TransferService.transferOrdered(from, to, amount);
+      return;
+    }
+    int spins = 0;
+    while (!request.done) {
+      if (first.lock().tryLock()) {
+        try {
+          combine(combiner);
+        } finally {
+          first.lock().unlock();
+        }
+      } else if (++spins < SPINS_BEFORE_PARK) {
+        Thread.onSpinWait();
+      } else {
+        LockSupport.parkNanos(PARK_NANOS);
+      }
+    }
+    if (request.failure != null)
+      throw request.failure;
+  }
+
+  /**
+   * Returns the average number of requests applied per combining pass.
+   *
+   * @return average batch size
+   */
+  public double averageBatchSize() {
+    long p = passes.sum();
+    return p == 0 ? 0 : combined.sum() / (double) p;
+  }
+
+  /** Returns the slots of {@code account}, creating them on first use. */
+  private Combiner combiner(BankAccount account) {
+    for (Reference<? extends BankAccount> ref; (ref = collected.poll()) != null;)
+      combiners.remove(ref);
+    // lookups use an unregistered key; only stored keys are enqueued when collected
+    Combiner combiner = combiners.get(new AccountKey(account, null));
+    if (combiner == null)
+      combiner = combiners.computeIfAbsent(new AccountKey(account, collected), k -> new Combiner(slotsPerAccount));
+    return combiner;
+  }
+
+  /** Applies every published request. Called with the first lock held. */
+  private void combine(Combiner combiner) {
+    int applied = 0;
+    AtomicReferenceArray<Request> slots = combiner.slots;
+    for (int i = 0; i < slots.length(); i++) {
+      Request r = slots.get(i);
+      if (r == null)
+        continue;
+      slots.set(i, null);
+      r.second.lock().lock();
+      try {
+        TransferService.withdrawDeposit(r.from, r.to, r.amount);
+      } catch (IllegalArgumentException e) {
+        r.failure = e;
+      } finally {
+        r.second.lock().unlock();
+      }
+      r.done = true;
+      applied++;
+    }
+    if (applied > 0) {
+      passes.increment();
+      combined.add(applied);
+    }
+  }
+
+  /** Weak map key that compares accounts by identity. */
+  private static final class AccountKey extends WeakReference<BankAccount> {
+    private final int hash;
+
+    private AccountKey(BankAccount account, ReferenceQueue<BankAccount> queue) {
+      super(account, queue);
+      this.hash = System.identityHashCode(account);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o)
+        return true;
+      // a cleared key only equals itself, so it can still be removed
+      BankAccount account = get();
+      return account != null && o instanceof AccountKey other && account == other.get();
+    }
+  }
+
+  /** Publication slots of one account. */
+  private static final class Combiner {
+    private final AtomicReferenceArray<Request> slots;
+
+    private Combiner(int size) {
+      this.slots = new AtomicReferenceArray<>(size);
+    }
+
+    /** Claims a free slot for {@code r}, probing from a random start. */
+    private boolean publish(Request r) {
+      int n = slots.length();
+      int start = ThreadLocalRandom.current().nextInt(n);
+      for (int i = 0; i < n; i++) {
+        if (slots.compareAndSet((start + i) % n, null, r))
+          return true;
+      }
+      return false;
+    }
+  }
+
+  /** A published transfer and its completion state. */
+  private static final class Request {
+    private final BankAccount from;
+    private final BankAccount to;
+    /** The account locked after the combining one. */
+    private final BankAccount second;
+    private final long amount;
+    private volatile boolean done;
+    private IllegalArgumentException failure;
+
+    private Request(BankAccount from, BankAccount to, BankAccount second, long amount) {
+      this.from = from;
+      this.to = to;
+      this.second = second;
+      this.amount = amount;
+    }
+  }
+}
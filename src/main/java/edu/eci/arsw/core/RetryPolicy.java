@@ -0,0 +1,103 @@
+package edu.eci.arsw.core;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Strategy deciding how {@link TransferService#transferTryLock} waits for
+ * locks and how it backs off between failed attempts.
+ * <p>
+ * A policy is shared by many transfers and must be thread-safe. Per-transfer
+ * state (such as the previous backoff) lives in the {@link Backoff} returned
+ * by {@link #start()}, which is used by a single thread only.
+ */
+public interface RetryPolicy {
+
+  /**
+   * Starts a new transfer and returns its private backoff state.
+   *
+   * @return per-transfer backoff
+   */
+  Backoff start();
+
+  /**
+   * Feedback hook invoked once per transfer, successful or not. Adaptive
+   * policies use it to track observed contention.
+   *
+   * @param stats attempts and wait time of the finished transfer
+   */
+  default void record(TransferStats stats) {
+  }
+
+  /** Per-transfer backoff state. Not thread-safe. */
+  interface Backoff {
+    /**
+     * Returns the timeout to use for each {@code tryLock} in the next attempt.
+     *
+     * @return timeout in nanoseconds (0 means a non-blocking tryLock)
+     */
+    long lockTimeoutNanos();
+
+    /**
+     * Waits after a failed attempt before retrying.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void await() throws InterruptedException;
+  }
+
+  /**
+   * Legacy behaviour: 10 ms tryLock timeouts and a random 1..5 ms sleep.
+   *
+   * @return fixed backoff policy
+   */
+  static RetryPolicy fixed() {
+    return new FixedBackoffPolicy(Duration.ofMillis(10), 1, 5);
+  }
+
+  /**
+   * Exponential backoff with decorrelated jitter using sensible defaults.
+   *
+   * @return decorrelated jitter policy
+   */
+  static RetryPolicy decorrelatedJitter() {
+    return new DecorrelatedJitterPolicy(Duration.ofMillis(10), Duration.ofNanos(20_000), Duration.ofMillis(20));
+  }
+
+  /**
+   * Spins briefly with {@link Thread#onSpinWait()} before parking, suited to
+   * short critical sections.
+   *
+   * @return spin-then-park policy
+   */
+  static RetryPolicy spinThenPark() {
+    return new SpinThenParkPolicy(64, Duration.ofNanos(50_000), Duration.ofMillis(5));
+  }
+
+  /**
+   * Adjusts the tryLock timeout from the observed contention.
+   *
+   * @return adaptive timeout policy
+   */
+  static RetryPolicy adaptive() {
+    return new AdaptiveTimeoutPolicy(Duration.ofNanos(50_000), Duration.ofMillis(50));
+  }
+
+  /**
+   * Resolves a policy by name: {@code fixed}, {@code jitter}, {@code spin} or
+   * {@code adaptive}.
+   *
+   * @param name policy name (case-insensitive)
+   * @return the matching policy
+   * @throws IllegalArgumentException if the name is unknown
+   */
+  static RetryPolicy named(String name) {
+    return switch (name.toLowerCase(Locale.ROOT)) {
+      case "fixed" -> fixed();
+      case "jitter" -> decorrelatedJitter();
+      case "spin" -> spinThenPark();
+      case "adaptive" -> adaptive();
+      default -> throw new IllegalArgumentException("Unknown retry policy: " + name);
+    };
+  }
+}
@@ -0,0 +1,56 @@
+package edu.eci.arsw.core;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Uses non-blocking tryLock attempts separated by short busy spins first, and
+ * only parks (with exponentially growing, jittered pauses) once spinning has
+ * not helped. Good when locks are held for very short periods.
+ */
+final class SpinThenParkPolicy implements RetryPolicy {
+  private final int spinAttempts;
+  private final long minParkNanos;
+  private final long maxParkNanos;
+
+  /**
+   * @param spinAttempts number of failed attempts handled by spinning
+   * @param minPark first park duration once spinning is exhausted
+   * @param maxPark largest park duration
+   */
+  SpinThenParkPolicy(int spinAttempts, Duration minPark, Duration maxPark) {
+    if (spinAttempts < 0 || minPark.isNegative() || minPark.isZero() || maxPark.compareTo(minPark) < 0)
+      throw new IllegalArgumentException("invalid spin/park configuration");
+    this.spinAttempts = spinAttempts;
+    this.minParkNanos = minPark.toNanos();
+    this.maxParkNanos = maxPark.toNanos();
+  }
+
+  @Override
+  public Backoff start() {
+    return new Backoff() {
+      private int failures;
+      private long park = minParkNanos;
+
+      @Override
+      public long lockTimeoutNanos() {
+        return 0L;
+      }
+
+      @Override
+      public void await() throws InterruptedException {
+        if (failures++ < spinAttempts) {
+          // spin a little longer on each failure: 1, 2, 4 ... 64 iterations
+          int spins = 1 << Math.min(failures, 6);
+          for (int i = 0; i < spins; i++)
+            Thread.onSpinWait();
+          if (Thread.interrupted())
+            throw new InterruptedException();
+          return;
+        }
+        Backoffs.parkNanos(ThreadLocalRandom.current().nextLong(park / 2, park + 1));
+        park = Math.min(maxParkNanos, park * 2);
+      }
+    };
+  }
+}
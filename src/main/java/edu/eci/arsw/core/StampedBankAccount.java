@@ -0,0 +1,78 @@
+package edu.eci.arsw.core;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Bank account variant for read-mostly workloads. Balance reads are
+ * optimistic: they take no lock and only fall back to a read lock when a
+ * concurrent transfer invalidated the stamp. Transfers made with
+ * {@link TransferService#transferStamped} take the write stamp.
+ * <p>
+ * Unlike {@link BankAccount} the lock is not reentrant.
+ */
+public final class StampedBankAccount {
+  private final long id;
+  private long balance;
+  private final StampedLock lock = new StampedLock();
+
+  /**
+   * Creates a bank account with an id and an initial balance.
+   *
+   * @param id account identifier
+   * @param initial initial balance
+   */
+  public StampedBankAccount(long id, long initial) {
+    this.id = id;
+    this.balance = initial;
+  }
+
+  /**
+   * Returns the account id.
+   *
+   * @return account id
+   */
+  public long id() {
+    return id;
+  }
+
+  /**
+   * Returns the current balance using a validated optimistic read. Readers
+   * never block writers and, in the common case, never write shared memory.
+   *
+   * @return balance
+   */
+  public long balance() {
+    long stamp = lock.tryOptimisticRead();
+    long value = balance;
+    if (lock.validate(stamp))
+      return value;
+    stamp = lock.readLock();
+    try {
+      return balance;
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Returns the account lock for external coordination.
+   *
+   * @return account stamped lock
+   */
+  public StampedLock lock() {
+    return lock;
+  }
+
+  // Internal helpers used by TransferService while holding the write stamp
+  long balanceInternal() {
+    return balance;
+  }
+
+  void depositInternal(long amount) {
+    balance += amount;
+  }
+
+  void withdrawInternal(long amount) {
+    balance -= amount;
+  }
+}
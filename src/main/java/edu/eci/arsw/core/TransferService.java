@@ -2,9 +2,9 @@ package edu.eci.arsw.core;
 
 import java.time.Duration;
 import java.util.Objects;
-import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
 
 /**
  * Utility service providing several strategies to transfer money between
@@ -12,6 +12,8 @@ import java.util.concurrent.locks.ReentrantLock;
  * ordered (deadlock-free) and tryLock-based transfer strategies.
  */
 public final class TransferService {
+  private static final RetryPolicy DEFAULT_RETRY_POLICY = RetryPolicy.decorrelatedJitter();
+
   /**
    * Naive transfer that locks source then destination without ordering. This can
    * deadlock under certain interleavings.
@@ -48,8 +50,25 @@ public final class TransferService {
    * @param amount amount to transfer
    */
   public static void transferOrdered(BankAccount from, BankAccount to, long amount) {
+    transferOrdered(from, to, amount, () -> 0);
+  }
+
+  /**
+   * Ordered transfer that also runs {@code onApplied} once the transfer is
+   * applied, before either lock is released. Transfers that touch a common
+   * account therefore run their callbacks in the order they were applied,
+   * which is what a write-ahead log needs to number its records.
+   *
+   * @param from source account
+   * @param to destination account
+   * @param amount amount to transfer
+   * @param onApplied runs with both locks held; not run if the transfer fails
+   * @return the value returned by {@code onApplied}
+   */
+  public static long transferOrdered(BankAccount from, BankAccount to, long amount, LongSupplier onApplied) {
     Objects.requireNonNull(from);
     Objects.requireNonNull(to);
+    Objects.requireNonNull(onApplied);
     BankAccount first = from.id() < to.id() ? from : to;
     BankAccount second = from.id() < to.id() ? to : from;
     first.lock().lock();
@@ -57,6 +76,7 @@ public final class TransferService {
       second.lock().lock();
       try {
         withdrawDeposit(from, to, amount);
+        return onApplied.getAsLong();
       } finally {
         second.lock().unlock();
       }
@@ -67,29 +87,58 @@ public final class TransferService {
 
   /**
    * Tries to acquire locks using tryLock with a timeout and retries until the
-   * provided deadline. Throws InterruptedException if the deadline is reached
-   * before acquiring both locks.
+   * provided deadline, backing off with {@link RetryPolicy#decorrelatedJitter()}.
+   * Throws InterruptedException if the deadline is reached before acquiring
+   * both locks.
    *
    * @param from source account
    * @param to destination account
    * @param amount amount to transfer
    * @param maxWait maximum duration to wait for acquiring locks
+   * @return attempts and wait time of the transfer
    * @throws InterruptedException if the transfer could not acquire locks in time
    */
-  public static void transferTryLock(BankAccount from, BankAccount to, long amount, Duration maxWait)
+  public static TransferStats transferTryLock(BankAccount from, BankAccount to, long amount, Duration maxWait)
       throws InterruptedException {
+    return transferTryLock(from, to, amount, maxWait, DEFAULT_RETRY_POLICY);
+  }
+
+  /**
+   * Tries to acquire both locks with {@code tryLock}, using the given policy to
+   * choose the lock timeouts and the backoff between failed attempts, until the
+   * provided deadline.
+   *
+   * @param from source account
+   * @param to destination account
+   * @param amount amount to transfer
+   * @param maxWait maximum duration to wait for acquiring locks
+   * @param policy retry policy deciding timeouts and backoff
+   * @return attempts and wait time of the transfer
+   * @throws InterruptedException if the transfer could not acquire locks in time
+   */
+  public static TransferStats transferTryLock(BankAccount from, BankAccount to, long amount, Duration maxWait,
+      RetryPolicy policy) throws InterruptedException {
     Objects.requireNonNull(from);
     Objects.requireNonNull(to);
+    Objects.requireNonNull(policy);
     ReentrantLock a = from.lock();
     ReentrantLock b = to.lock();
-    long deadline = System.nanoTime() + maxWait.toNanos();
-    while (System.nanoTime() < deadline) {
-      if (a.tryLock(10, TimeUnit.MILLISECONDS)) {
+    long start = System.nanoTime();
+    long deadline = start + maxWait.toNanos();
+    RetryPolicy.Backoff backoff = policy.start();
+    int attempts = 0;
+    long now;
+    while ((now = System.nanoTime()) < deadline) {
+      attempts++;
+      long timeout = Math.min(backoff.lockTimeoutNanos(), deadline - now);
+      if (a.tryLock(timeout, TimeUnit.NANOSECONDS)) {
         try {
-          if (b.tryLock(10, TimeUnit.MILLISECONDS)) {
+          if (b.tryLock(timeout, TimeUnit.NANOSECONDS)) {
             try {
+              TransferStats stats = new TransferStats(attempts, System.nanoTime() - start);
               withdrawDeposit(from, to, amount);
-              return;
+              policy.record(stats);
+              return stats;
             } finally {
               b.unlock();
             }
@@ -98,22 +147,69 @@ public final class TransferService {
           a.unlock();
         }
       }
-      Thread.sleep(ThreadLocalRandom.current().nextInt(1, 5));
+      backoff.await();
     }
+    policy.record(new TransferStats(attempts, System.nanoTime() - start));
     throw new InterruptedException("transferTryLock timed out");
   }
 
+  /**
+   * Ordered transfer between {@link StampedBankAccount}s. Takes the write
+   * stamp of both accounts in id order, so concurrent optimistic balance
+   * reads are invalidated and retried rather than blocked beforehand.
+   *
+   * @param from source account
+   * @param to destination account
+   * @param amount amount to transfer
+   */
+  public static void transferStamped(StampedBankAccount from, StampedBankAccount to, long amount) {
+    Objects.requireNonNull(from);
+    Objects.requireNonNull(to);
+    if (from == to) {
+      long stamp = from.lock().writeLock();
+      try {
+        checkFunds(from.balanceInternal(), amount);
+      } finally {
+        from.lock().unlockWrite(stamp);
+      }
+      return;
+    }
+    StampedBankAccount first = from.id() < to.id() ? from : to;
+    StampedBankAccount second = from.id() < to.id() ? to : from;
+    long firstStamp = first.lock().writeLock();
+    try {
+      long secondStamp = second.lock().writeLock();
+      try {
+        checkFunds(from.balanceInternal(), amount);
+        from.withdrawInternal(amount);
+        to.depositInternal(amount);
+      } finally {
+        second.lock().unlockWrite(secondStamp);
+      }
+    } finally {
+      first.lock().unlockWrite(firstStamp);
+    }
+  }
+
   /**
    * Internal helper that performs the withdraw and deposit assuming locks are
-   * already held.
+   * already held. Reading the audit epoch here, with both locks held, is what
+   * lets {@link BalanceAuditor} place every transfer on one side of its cut.
    */
-  private static void withdrawDeposit(BankAccount from, BankAccount to, long amount) {
-    if (from.balance() < amount)
-      throw new IllegalArgumentException("Insufficient funds");
+  static void withdrawDeposit(BankAccount from, BankAccount to, long amount) {
+    checkFunds(from.balance(), amount);
+    long epoch = BalanceAuditor.currentEpoch();
+    from.preserveForAudit(epoch);
+    to.preserveForAudit(epoch);
     from.withdrawInternal(amount);
     to.depositInternal(amount);
   }
 
+  private static void checkFunds(long balance, long amount) {
+    if (balance < amount)
+      throw new IllegalArgumentException("Insufficient funds");
+  }
+
   private static void sleepALittle() {
     try {
       Thread.sleep(5);
@@ -0,0 +1,20 @@
+package edu.eci.arsw.core;
+
+/**
+ * Outcome of a lock-acquiring transfer: how many lock attempts it took and how
+ * long the caller waited before both locks were held.
+ *
+ * @param attempts number of acquisition rounds (1 means no retry was needed)
+ * @param waitNanos time spent acquiring locks and backing off, in nanoseconds
+ */
+public record TransferStats(int attempts, long waitNanos) {
+
+  /**
+   * Returns the number of retries, i.e. attempts beyond the first one.
+   *
+   * @return retry count
+   */
+  public int retries() {
+    return Math.max(0, attempts - 1);
+  }
+}
@@ -0,0 +1,93 @@
+package edu.eci.arsw.demos;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import edu.eci.arsw.core.AuditReport;
+import edu.eci.arsw.core.BalanceAuditor;
+import edu.eci.arsw.core.BankAccount;
+import edu.eci.arsw.core.TransferService;
+
+/**
+ * Demo that measures transfer throughput first without and then with
+ * back-to-back {@link BalanceAuditor} runs, and reports the audit duration,
+ * whether every audit saw the money conserved and the throughput slowdown.
+ */
+public final class AuditDemo {
+  private AuditDemo() {
+  }
+
+  /**
+   * Runs the audit demo. Accepts {@code -Daccounts}, {@code -Dthreads} and
+   * {@code -DphaseSec}.
+   *
+   * @throws Exception if interrupted
+   */
+  public static void run() throws Exception {
+    int accountCount = Integer.getInteger("accounts", 10_000);
+    int threads = Integer.getInteger("threads", Runtime.getRuntime().availableProcessors());
+    int phaseSec = Integer.getInteger("phaseSec", 3);
+    List<BankAccount> accounts = new ArrayList<>(accountCount);
+    for (int i = 0; i < accountCount; i++)
+      accounts.add(new BankAccount(i, 1_000));
+    long expected = 1_000L * accountCount;
+
+    var transfers = new LongAdder();
+    var running = new AtomicBoolean(true);
+    List<Thread> workers = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      workers.add(Thread.ofPlatform().name("audit-demo-", t).start(() -> {
+        var rnd = ThreadLocalRandom.current();
+        while (running.get()) {
+          var from = accounts.get(rnd.nextInt(accountCount));
+          var to = accounts.get(rnd.nextInt(accountCount));
+          try {
+            TransferService.transferOrdered(from, to, 1 + rnd.nextInt(10));
+            transfers.increment();
+          } catch (IllegalArgumentException insufficient) {
+            // rejected transfers do not count towards throughput
+          }
+        }
+      }));
+    }
+
+    double baseline = throughput(transfers, phaseSec);
+
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(phaseSec);
+    long before = transfers.sum();
+    long start = System.nanoTime();
+    int audits = 0;
+    int conserved = 0;
+    long auditNanos = 0;
+    long maxAuditNanos = 0;
+    while (System.nanoTime() < deadline) {
+      AuditReport report = BalanceAuditor.audit(accounts, expected);
+      audits++;
+      if (report.conserved())
+        conserved++;
+      auditNanos += report.durationNanos();
+      maxAuditNanos = Math.max(maxAuditNanos, report.durationNanos());
+    }
+    double audited = (transfers.sum() - before) / ((System.nanoTime() - start) / 1e9);
+
+    running.set(false);
+    for (Thread w : workers)
+      w.join();
+
+    System.out.printf("AuditDemo accounts=%d threads=%d audits=%d conserved=%d avgAudit=%.2fms maxAudit=%.2fms%n",
+        accountCount, threads, audits, conserved, auditNanos / 1e6 / Math.max(1, audits), maxAuditNanos / 1e6);
+    System.out.printf("Throughput without audits=%.0f ops/s with audits=%.0f ops/s slowdown=%.1f%%%n",
+        baseline, audited, 100.0 * (baseline - audited) / baseline);
+  }
+
+  private static double throughput(LongAdder transfers, int seconds) throws InterruptedException {
+    long before = transfers.sum();
+    long start = System.nanoTime();
+    Thread.sleep(seconds * 1000L);
+    return (transfers.sum() - before) / ((System.nanoTime() - start) / 1e9);
+  }
+}
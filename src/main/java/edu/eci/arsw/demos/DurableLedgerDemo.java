@@ -0,0 +1,69 @@
+package edu.eci.arsw.demos;
+
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import edu.eci.arsw.persistence.DurableLedger;
+
+/**
+ * Demo that runs concurrent durable transfers, takes a snapshot, then reopens
+ * the ledger from disk and checks that the recovered total matches.
+ */
+public final class DurableLedgerDemo {
+  private DurableLedgerDemo() {
+  }
+
+  /**
+   * Runs the durable ledger demo. Accepts {@code -Dwal.dir}, {@code -Daccounts},
+   * {@code -Dthreads} and {@code -Dtransfers}.
+   *
+   * @throws Exception if interrupted or the log cannot be written
+   */
+  public static void run() throws Exception {
+    Path dir = Path.of(System.getProperty("wal.dir", "target/ledger-demo"));
+    int accounts = Integer.getInteger("accounts", 100);
+    int threads = Integer.getInteger("threads", 64);
+    int transfers = Integer.getInteger("transfers", 20_000);
+
+    long expected;
+    try (var ledger = DurableLedger.open(dir)) {
+      for (int i = 0; i < accounts; i++) {
+        try {
+          ledger.account(i);
+        } catch (IllegalArgumentException missing) {
+          ledger.openAccount(i, 1_000);
+        }
+      }
+      var rejected = new LongAdder();
+      long start = System.nanoTime();
+      try (var exec = Executors.newVirtualThreadPerTaskExecutor()) {
+        for (int t = 0; t < threads; t++) {
+          exec.submit(() -> {
+            var rnd = ThreadLocalRandom.current();
+            for (int i = 0; i < transfers / threads; i++) {
+              try {
+                ledger.transfer(rnd.nextInt(accounts), rnd.nextInt(accounts), 1 + rnd.nextInt(10));
+              } catch (IllegalArgumentException insufficient) {
+                rejected.increment();
+              }
+            }
+            return null;
+          });
+        }
+      }
+      long elapsed = System.nanoTime() - start;
+      System.out.printf("DurableLedgerDemo transfers=%d rejected=%d throughput=%.0f ops/s recordsPerForce=%.1f%n",
+          transfers, rejected.sum(), transfers / (elapsed / 1e9), ledger.recordsPerForce());
+      System.out.println("Snapshot covers log up to seq " + ledger.snapshot());
+      expected = ledger.totalBalance();
+    }
+
+    long start = System.nanoTime();
+    try (var recovered = DurableLedger.open(dir)) {
+      System.out.printf("Recovered in %.1f ms total=%d expected=%d%n",
+          (System.nanoTime() - start) / 1e6, recovered.totalBalance(), expected);
+    }
+  }
+}
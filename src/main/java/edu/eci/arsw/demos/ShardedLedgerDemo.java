@@ -0,0 +1,53 @@
+package edu.eci.arsw.demos;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+import edu.eci.arsw.ledger.ShardedLedger;
+import edu.eci.arsw.ledger.TransferOutcome;
+
+/**
+ * Demo that runs random transfers on the {@link ShardedLedger} and checks that
+ * the total amount of money is conserved once all transfers finish.
+ */
+public final class ShardedLedgerDemo {
+  private ShardedLedgerDemo() {
+  }
+
+  /**
+   * Runs the sharded ledger demo. Accepts {@code -Dshards}, {@code -Daccounts}
+   * and {@code -Dtransfers}.
+   *
+   * @throws Exception if interrupted
+   */
+  public static void run() throws Exception {
+    int shardCount = Integer.getInteger("shards", Runtime.getRuntime().availableProcessors());
+    int accounts = Integer.getInteger("accounts", 1_000);
+    int transfers = Integer.getInteger("transfers", 1_000_000);
+    try (var ledger = new ShardedLedger(shardCount)) {
+      List<CompletableFuture<Void>> opened = new ArrayList<>(accounts);
+      for (int i = 0; i < accounts; i++)
+        opened.add(ledger.open(i, 1_000));
+      CompletableFuture.allOf(opened.toArray(CompletableFuture[]::new)).join();
+
+      long start = System.nanoTime();
+      List<CompletableFuture<TransferOutcome>> pending = new ArrayList<>(transfers);
+      var rnd = ThreadLocalRandom.current();
+      for (int i = 0; i < transfers; i++)
+        pending.add(ledger.transfer(rnd.nextInt(accounts), rnd.nextInt(accounts), 1 + rnd.nextInt(10)));
+      long committed = 0;
+      for (var f : pending)
+        if (f.join() == TransferOutcome.COMMITTED)
+          committed++;
+      long elapsed = System.nanoTime() - start;
+
+      long total = ledger.totalBalance().join();
+      System.out.printf("ShardedLedgerDemo shards=%d accounts=%d transfers=%d committed=%d local=%d crossShard=%d "
+          + "throughput=%.0f ops/s total=%d expected=%d%n",
+          shardCount, accounts, transfers, committed, ledger.localTransfers(), ledger.crossShardTransfers(),
+          transfers / (elapsed / 1e9), total, accounts * 1_000L);
+    }
+  }
+}
@@ -2,9 +2,12 @@ package edu.eci.arsw.demos;
 
 import java.time.Duration;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
 
 import edu.eci.arsw.core.BankAccount;
+import edu.eci.arsw.core.RetryPolicy;
 import edu.eci.arsw.core.TransferService;
+import edu.eci.arsw.core.TransferStats;
 
 /**
  * Demo that uses tryLock-based transfers which can retry under contention and
@@ -15,31 +18,43 @@ public final class TryLockTransferDemo {
   }
 
   /**
-   * Runs the tryLock transfer demo.
+   * Runs the tryLock transfer demo. The retry policy is selected with
+   * {@code -Dretry=fixed|jitter|spin|adaptive} (default {@code jitter}).
    *
    * @throws Exception if interrupted
    */
   public static void run() throws Exception {
     var a = new BankAccount(1, 1000);
     var b = new BankAccount(2, 1000);
+    String retry = System.getProperty("retry", "jitter");
+    RetryPolicy policy = RetryPolicy.named(retry);
+    var transfers = new LongAdder();
+    var attempts = new LongAdder();
+    var waitNanos = new LongAdder();
+    long start = System.nanoTime();
     try (var exec = Executors.newVirtualThreadPerTaskExecutor()) {
       for (int i = 0; i < 1000; i++) {
-        exec.submit(() -> {
-          try {
-            TransferService.transferTryLock(a, b, 1, Duration.ofSeconds(5));
-          } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-          }
-        });
-        exec.submit(() -> {
-          try {
-            TransferService.transferTryLock(b, a, 1, Duration.ofSeconds(5));
-          } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-          }
-        });
+        exec.submit(() -> transfer(a, b, policy, transfers, attempts, waitNanos));
+        exec.submit(() -> transfer(b, a, policy, transfers, attempts, waitNanos));
       }
     }
+    long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+    long done = Math.max(1, transfers.sum());
+    System.out.printf("TryLockTransferDemo retry=%s transfers=%d attempts=%d avgAttempts=%.2f avgWait=%.1fus elapsed=%dms%n",
+        retry, transfers.sum(), attempts.sum(), attempts.sum() / (double) done,
+        waitNanos.sum() / 1_000.0 / done, elapsedMs);
     System.out.println("TryLockTransferDemo finished without deadlock (may retry under contention).");
   }
+
+  private static void transfer(BankAccount from, BankAccount to, RetryPolicy policy, LongAdder transfers,
+      LongAdder attempts, LongAdder waitNanos) {
+    try {
+      TransferStats stats = TransferService.transferTryLock(from, to, 1, Duration.ofSeconds(5), policy);
+      transfers.increment();
+      attempts.add(stats.attempts());
+      waitNanos.add(stats.waitNanos());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
 }
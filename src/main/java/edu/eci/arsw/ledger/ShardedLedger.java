@@ -0,0 +1,266 @@
+package edu.eci.arsw.ledger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free alternative to {@link edu.eci.arsw.core.TransferService}: accounts
+ * are partitioned across single-threaded shards and each shard owns its
+ * balances exclusively, so no account is ever touched by two threads.
+ * <p>
+ * Transfers are messages. When both accounts live in the same shard the
+ * transfer is a single local task. Otherwise it runs in three steps: the
+ * source shard debits the amount into a reservation (escrow), the destination
+ * shard credits it, and the source shard then settles the reservation, or
+ * refunds it if the destination account does not exist.
+ * <p>
+ * Futures returned by this class are completed on shard threads; callers
+ * should not run blocking continuations on them without an explicit executor.
+ */
+public final class ShardedLedger implements AutoCloseable {
+  private final Shard[] shards;
+  private final LongAdder localTransfers = new LongAdder();
+  private final LongAdder crossShardTransfers = new LongAdder();
+
+  /**
+   * Creates a ledger with the given number of shards, each backed by its own
+   * thread.
+   *
+   * @param shardCount number of shards, must be positive
+   */
+  public ShardedLedger(int shardCount) {
+    if (shardCount <= 0)
+      throw new IllegalArgumentException("shardCount must be > 0");
+    this.shards = new Shard[shardCount];
+    for (int i = 0; i < shardCount; i++)
+      shards[i] = new Shard(i);
+  }
+
+  /**
+   * Returns the number of shards.
+   *
+   * @return shard count
+   */
+  public int shardCount() {
+    return shards.length;
+  }
+
+  /**
+   * Returns the shard owning the given account.
+   *
+   * @param accountId account identifier
+   * @return shard index in {@code [0, shardCount)}
+   */
+  public int shardOf(long accountId) {
+    return Math.floorMod(Long.hashCode(accountId), shards.length);
+  }
+
+  /**
+   * Opens an account with an initial balance.
+   *
+   * @param accountId account identifier, must not exist yet
+   * @param initial initial balance, must not be negative
+   * @return future completed once the account exists, or failed with
+   *         {@link IllegalArgumentException}
+   */
+  public CompletableFuture<Void> open(long accountId, long initial) {
+    Shard shard = shards[shardOf(accountId)];
+    CompletableFuture<Void> result = new CompletableFuture<>();
+    shard.execute(() -> {
+      if (initial < 0) {
+        result.completeExceptionally(new IllegalArgumentException("initial balance must be >= 0"));
+      } else if (shard.accounts.putIfAbsent(accountId, new Account(initial)) != null) {
+        result.completeExceptionally(new IllegalArgumentException("account " + accountId + " already exists"));
+      } else {
+        result.complete(null);
+      }
+    });
+    return result;
+  }
+
+  /**
+   * Reads an account balance on its owning shard.
+   *
+   * @param accountId account identifier
+   * @return future with the balance, or failed with
+   *         {@link IllegalArgumentException} if the account does not exist
+   */
+  public CompletableFuture<Long> balance(long accountId) {
+    Shard shard = shards[shardOf(accountId)];
+    CompletableFuture<Long> result = new CompletableFuture<>();
+    shard.execute(() -> {
+      Account account = shard.accounts.get(accountId);
+      if (account == null)
+        result.completeExceptionally(new IllegalArgumentException("unknown account " + accountId));
+      else
+        result.complete(account.balance);
+    });
+    return result;
+  }
+
+  /**
+   * Transfers money between two accounts.
+   *
+   * @param from source account id
+   * @param to destination account id
+   * @param amount amount to transfer, must be positive
+   * @return future with the transfer outcome
+   */
+  public CompletableFuture<TransferOutcome> transfer(long from, long to, long amount) {
+    if (amount <= 0)
+      throw new IllegalArgumentException("amount must be > 0");
+    Shard source = shards[shardOf(from)];
+    Shard target = shards[shardOf(to)];
+    CompletableFuture<TransferOutcome> result = new CompletableFuture<>();
+    if (source == target) {
+      localTransfers.increment();
+      source.execute(() -> result.complete(source.transferLocal(from, to, amount)));
+    } else {
+      crossShardTransfers.increment();
+      source.execute(() -> reserve(source, target, from, to, amount, result));
+    }
+    return result;
+  }
+
+  /** Step 1, on the source shard: move the amount into the reservation. */
+  private static void reserve(Shard source, Shard target, long from, long to, long amount,
+      CompletableFuture<TransferOutcome> result) {
+    Account debit = source.accounts.get(from);
+    if (debit == null) {
+      result.complete(TransferOutcome.UNKNOWN_ACCOUNT);
+      return;
+    }
+    if (debit.balance < amount) {
+      result.complete(TransferOutcome.INSUFFICIENT_FUNDS);
+      return;
+    }
+    debit.balance -= amount;
+    source.escrow += amount;
+    target.execute(() -> credit(source, target, from, to, amount, result));
+  }
+
+  /** Step 2, on the destination shard: credit, then let the source settle. */
+  private static void credit(Shard source, Shard target, long from, long to, long amount,
+      CompletableFuture<TransferOutcome> result) {
+    Account account = target.accounts.get(to);
+    if (account == null) {
+      source.execute(() -> {
+        source.escrow -= amount;
+        source.accounts.get(from).balance += amount;
+        result.complete(TransferOutcome.UNKNOWN_ACCOUNT);
+      });
+      return;
+    }
+    account.balance += amount;
+    source.execute(() -> {
+      source.escrow -= amount;
+      result.complete(TransferOutcome.COMMITTED);
+    });
+  }
+
+  /**
+   * Sums balances and reservations of every shard. Each shard contributes a
+   * value read on its own thread, so the total is exact only when no
+   * cross-shard transfer is in flight.
+   *
+   * @return future with the total amount of money held by the ledger
+   */
+  public CompletableFuture<Long> totalBalance() {
+    List<CompletableFuture<Long>> parts = new ArrayList<>(shards.length);
+    for (Shard shard : shards) {
+      CompletableFuture<Long> part = new CompletableFuture<>();
+      shard.execute(() -> {
+        long sum = shard.escrow;
+        for (Account account : shard.accounts.values())
+          sum += account.balance;
+        part.complete(sum);
+      });
+      parts.add(part);
+    }
+    return CompletableFuture.allOf(parts.toArray(CompletableFuture[]::new))
+        .thenApply(v -> parts.stream().mapToLong(CompletableFuture::join).sum());
+  }
+
+  /**
+   * Returns how many transfers were executed entirely within one shard.
+   *
+   * @return local transfer count
+   */
+  public long localTransfers() {
+    return localTransfers.sum();
+  }
+
+  /**
+   * Returns how many transfers needed the cross-shard reservation protocol.
+   *
+   * @return cross-shard transfer count
+   */
+  public long crossShardTransfers() {
+    return crossShardTransfers.sum();
+  }
+
+  /**
+   * Stops accepting messages and waits for the queued ones to run.
+   */
+  @Override
+  public void close() {
+    for (Shard shard : shards)
+      shard.executor.shutdown();
+    try {
+      for (Shard shard : shards)
+        shard.executor.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** Mutable balance owned by a single shard thread. */
+  private static final class Account {
+    private long balance;
+
+    private Account(long balance) {
+      this.balance = balance;
+    }
+  }
+
+  /**
+   * A partition of the accounts. All fields except {@code executor} are only
+   * accessed from the shard's own thread.
+   */
+  private static final class Shard {
+    private final ExecutorService executor;
+    private final Map<Long, Account> accounts = new HashMap<>();
+    private long escrow;
+
+    private Shard(int index) {
+      this.executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "ledger-shard-" + index);
+        t.setDaemon(true);
+        return t;
+      });
+    }
+
+    private void execute(Runnable task) {
+      executor.execute(task);
+    }
+
+    private TransferOutcome transferLocal(long from, long to, long amount) {
+      Account debit = accounts.get(from);
+      Account credit = accounts.get(to);
+      if (debit == null || credit == null)
+        return TransferOutcome.UNKNOWN_ACCOUNT;
+      if (debit.balance < amount)
+        return TransferOutcome.INSUFFICIENT_FUNDS;
+      debit.balance -= amount;
+      credit.balance += amount;
+      return TransferOutcome.COMMITTED;
+    }
+  }
+}
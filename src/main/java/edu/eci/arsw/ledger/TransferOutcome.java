@@ -0,0 +1,11 @@
+package edu.eci.arsw.ledger;
+
+/** Result of a transfer submitted to the {@link ShardedLedger}. */
+public enum TransferOutcome {
+  /** The amount was debited from the source and credited to the destination. */
+  COMMITTED,
+  /** The source balance was lower than the amount; nothing changed. */
+  INSUFFICIENT_FUNDS,
+  /** One of the accounts does not exist; any reservation was refunded. */
+  UNKNOWN_ACCOUNT
+}
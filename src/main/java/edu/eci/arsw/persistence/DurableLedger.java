@@ -0,0 +1,183 @@
+package edu.eci.arsw.persistence;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import edu.eci.arsw.core.BankAccount;
+import edu.eci.arsw.core.TransferService;
+
+/**
+ * Set of {@link BankAccount}s whose transfers survive restarts.
+ * <p>
+ * Every committed transfer is applied in memory with
+ * {@link TransferService#transferOrdered} and appended to a write-ahead log
+ * while both account locks are still held, so the log order of dependent
+ * transfers is the order they were applied in. The call returns only once
+ * its record is on disk. Records of concurrent transfers are forced together
+ * (group commit). {@link #snapshot()} writes all balances and drops the log
+ * segments it covers, so recovery only replays the log tail written after
+ * the latest snapshot.
+ */
+public final class DurableLedger implements AutoCloseable {
+  private final Path dir;
+  private final Map<Long, BankAccount> accounts = new ConcurrentHashMap<>();
+  /** Shared by transfers, exclusive while a snapshot copies the balances. */
+  private final ReentrantReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+  private final WriteAheadLog log;
+
+  private DurableLedger(Path dir, Map<Long, Long> balances, long nextSeq) throws IOException {
+    this.dir = dir;
+    balances.forEach((id, balance) -> accounts.put(id, new BankAccount(id, balance)));
+    this.log = new WriteAheadLog(dir, nextSeq);
+  }
+
+  /**
+   * Opens the ledger stored in {@code dir}, creating it if needed, and
+   * recovers its state from the latest snapshot plus the log tail.
+   *
+   * @param dir ledger directory
+   * @return the recovered ledger
+   * @throws IOException if the directory or its files cannot be read
+   */
+  public static DurableLedger open(Path dir) throws IOException {
+    Files.createDirectories(dir);
+    Snapshot snapshot = Snapshot.read(dir);
+    Map<Long, Long> balances = new HashMap<>(snapshot.balances());
+    long last = WriteAheadLog.replay(dir, snapshot.seq(), e -> {
+      switch (e.type()) {
+        case WriteAheadLog.OPEN -> balances.put(e.a(), e.amount());
+        // only committed transfers are logged, so deltas can be applied as-is
+        case WriteAheadLog.TRANSFER -> {
+          balances.merge(e.a(), -e.amount(), Long::sum);
+          balances.merge(e.b(), e.amount(), Long::sum);
+        }
+        default -> throw new UncheckedIOException(new IOException("Unknown record type " + e.type()));
+      }
+    });
+    return new DurableLedger(dir, balances, last + 1);
+  }
+
+  /**
+   * Creates an account and waits until its creation is durable.
+   *
+   * @param id account identifier, must not exist yet
+   * @param initial initial balance
+   * @return the new account
+   * @throws IOException if the log cannot be written
+   */
+  public BankAccount openAccount(long id, long initial) throws IOException {
+    long seq;
+    BankAccount account = new BankAccount(id, initial);
+    snapshotLock.readLock().lock();
+    // published and logged under its own lock: a transfer that finds it gets a later seq
+    account.lock().lock();
+    try {
+      if (accounts.putIfAbsent(id, account) != null)
+        throw new IllegalArgumentException("account " + id + " already exists");
+      seq = log.append(WriteAheadLog.OPEN, id, 0, initial);
+    } finally {
+      account.lock().unlock();
+      snapshotLock.readLock().unlock();
+    }
+    log.awaitDurable(seq);
+    return account;
+  }
+
+  /**
+   * Transfers money with ordered locking and waits until the transfer is
+   * durable.
+   *
+   * @param fromId source account id
+   * @param toId destination account id
+   * @param amount amount to transfer
+   * @throws IOException if the log cannot be written
+   * @throws IllegalArgumentException if an account is unknown or funds are
+   *         insufficient
+   */
+  public void transfer(long fromId, long toId, long amount) throws IOException {
+    BankAccount from = account(fromId);
+    BankAccount to = account(toId);
+    long seq;
+    snapshotLock.readLock().lock();
+    try {
+      // appended under the account locks: a transfer that spends these funds gets a later seq
+      seq = TransferService.transferOrdered(from, to, amount,
+          () -> log.append(WriteAheadLog.TRANSFER, fromId, toId, amount));
+    } finally {
+      snapshotLock.readLock().unlock();
+    }
+    log.awaitDurable(seq);
+  }
+
+  /**
+   * Returns the account with the given id.
+   *
+   * @param id account identifier
+   * @return the account
+   * @throws IllegalArgumentException if the account does not exist
+   */
+  public BankAccount account(long id) {
+    BankAccount account = accounts.get(id);
+    if (account == null)
+      throw new IllegalArgumentException("unknown account " + id);
+    return account;
+  }
+
+  /**
+   * Returns the sum of all balances. Only exact when no transfer is running.
+   *
+   * @return total balance
+   */
+  public long totalBalance() {
+    long sum = 0;
+    for (BankAccount account : accounts.values())
+      sum += account.balance();
+    return sum;
+  }
+
+  /**
+   * Writes a snapshot of all balances and deletes the log segments it makes
+   * redundant. Transfers are held back only while balances are copied and
+   * the current segment is flushed, not while the snapshot is written.
+   * Concurrent snapshots are serialized.
+   *
+   * @return sequence number covered by the snapshot
+   * @throws IOException if the snapshot or the log cannot be written
+   */
+  public synchronized long snapshot() throws IOException {
+    Snapshot snapshot;
+    snapshotLock.writeLock().lock();
+    try {
+      Map<Long, Long> balances = new HashMap<>(accounts.size() * 2);
+      for (BankAccount account : accounts.values())
+        balances.put(account.id(), account.balance());
+      snapshot = new Snapshot(log.rotate(), balances);
+    } finally {
+      snapshotLock.writeLock().unlock();
+    }
+    snapshot.write(dir);
+    log.deleteUpTo(snapshot.seq());
+    return snapshot.seq();
+  }
+
+  /**
+   * Returns the average number of records made durable per {@code force()}.
+   *
+   * @return records per group commit
+   */
+  public double recordsPerForce() {
+    long forces = log.forces();
+    return forces == 0 ? 0 : log.records() / (double) forces;
+  }
+
+  @Override
+  public void close() throws IOException {
+    log.close();
+  }
+}
@@ -0,0 +1,96 @@
+package edu.eci.arsw.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Point-in-time copy of every balance together with the sequence number of the
+ * last log record it includes. Written to a temporary file, atomically
+ * renamed and the directory forced, so a crash never leaves a half-written
+ * snapshot behind nor loses a completed one.
+ *
+ * @param seq last log sequence number reflected in the balances
+ * @param balances account id to balance
+ */
+record Snapshot(long seq, Map<Long, Long> balances) {
+  private static final int MAGIC = 0x534E4150; // "SNAP"
+  private static final String FILE = "snapshot.bin";
+
+  /** Snapshot of an empty ledger. */
+  static Snapshot empty() {
+    return new Snapshot(0, Map.of());
+  }
+
+  /**
+   * Durably writes this snapshot into {@code dir}.
+   *
+   * @param dir ledger directory
+   * @throws IOException if writing fails
+   */
+  void write(Path dir) throws IOException {
+    Path tmp = dir.resolve(FILE + ".tmp");
+    try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING)) {
+      CRC32 crc = new CRC32();
+      var out = new DataOutputStream(new CheckedOutputStream(
+          new BufferedOutputStream(Channels.newOutputStream(ch)), crc));
+      out.writeInt(MAGIC);
+      out.writeLong(seq);
+      out.writeInt(balances.size());
+      for (var e : balances.entrySet()) {
+        out.writeLong(e.getKey());
+        out.writeLong(e.getValue());
+      }
+      out.flush();
+      out.writeLong(crc.getValue());
+      out.flush();
+      ch.force(true);
+    }
+    Files.move(tmp, dir.resolve(FILE), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    // the rename itself must be durable before the log it replaces is deleted
+    WriteAheadLog.forceDirectory(dir);
+  }
+
+  /**
+   * Reads the snapshot stored in {@code dir}, or returns {@link #empty()} if
+   * there is none.
+   *
+   * @param dir ledger directory
+   * @return the stored snapshot
+   * @throws IOException if the file exists but is unreadable or corrupt
+   */
+  static Snapshot read(Path dir) throws IOException {
+    Path file = dir.resolve(FILE);
+    if (!Files.exists(file))
+      return empty();
+    CRC32 crc = new CRC32();
+    try (var in = new DataInputStream(new CheckedInputStream(
+        new BufferedInputStream(Files.newInputStream(file)), crc))) {
+      if (in.readInt() != MAGIC)
+        throw new IOException("Not a snapshot file: " + file);
+      long seq = in.readLong();
+      int size = in.readInt();
+      Map<Long, Long> balances = new HashMap<>(Math.max(16, size * 2));
+      for (int i = 0; i < size; i++)
+        balances.put(in.readLong(), in.readLong());
+      long expected = crc.getValue();
+      if (in.readLong() != expected)
+        throw new IOException("Corrupt snapshot: " + file);
+      return new Snapshot(seq, balances);
+    }
+  }
+}
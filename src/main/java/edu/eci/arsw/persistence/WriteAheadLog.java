@@ -0,0 +1,354 @@
+package edu.eci.arsw.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only redo log made of segment files named {@code wal-<firstSeq>.log}.
+ * <p>
+ * Records are appended to an in-memory batch and made durable with group
+ * commit: the first thread that needs durability becomes the leader, writes
+ * every pending record and calls {@link FileChannel#force(boolean)} once,
+ * while the other threads wait for that flush. Concurrent transfers therefore
+ * share one fsync instead of paying for one each.
+ */
+final class WriteAheadLog implements AutoCloseable {
+  /** Record types. */
+  static final int OPEN = 1;
+  static final int TRANSFER = 2;
+
+  /** type(4) + seq(8) + a(8) + b(8) + amount(8) + crc(4). */
+  static final int RECORD_BYTES = 40;
+  private static final String PREFIX = "wal-";
+  private static final String SUFFIX = ".log";
+
+  private final Path dir;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition flushed = lock.newCondition();
+  private FileChannel channel;
+  private long currentFirstSeq;
+  private ByteBuffer pending = ByteBuffer.allocate(64 * RECORD_BYTES);
+  private ByteBuffer spare = ByteBuffer.allocate(64 * RECORD_BYTES);
+  private long lastAppended;
+  private long durable;
+  private boolean flushing;
+  private IOException failure;
+  private long forces;
+  private long records;
+
+  /** A decoded log record. */
+  record Entry(int type, long seq, long a, long b, long amount) {
+  }
+
+  /**
+   * Opens a new segment in {@code dir} whose first record will get
+   * {@code nextSeq}.
+   *
+   * @param dir log directory
+   * @param nextSeq sequence number of the next record
+   * @throws IOException if the segment cannot be created
+   */
+  WriteAheadLog(Path dir, long nextSeq) throws IOException {
+    this.dir = dir;
+    this.lastAppended = nextSeq - 1;
+    this.durable = nextSeq - 1;
+    this.currentFirstSeq = nextSeq;
+    this.channel = openSegment(nextSeq);
+  }
+
+  /**
+   * Appends a record to the current batch without waiting for durability.
+   *
+   * @return the sequence number assigned to the record
+   */
+  long append(int type, long a, long b, long amount) {
+    lock.lock();
+    try {
+      long seq = ++lastAppended;
+      if (pending.remaining() < RECORD_BYTES)
+        pending = grow(pending);
+      encode(pending, type, seq, a, b, amount);
+      return seq;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Blocks until every record up to {@code seq} has been forced to disk,
+   * leading a group commit if no flush is currently running.
+   *
+   * @param seq sequence number to wait for
+   * @throws IOException if the flush failed
+   */
+  void awaitDurable(long seq) throws IOException {
+    lock.lock();
+    try {
+      while (durable < seq) {
+        if (failure != null)
+          throw failure;
+        if (flushing) {
+          flushed.awaitUninterruptibly();
+          continue;
+        }
+        flushLocked();
+      }
+      if (failure != null)
+        throw failure;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Flushes the pending batch as leader. Called with the lock held; the lock
+   * is released during the write and force so other threads keep appending.
+   */
+  private void flushLocked() {
+    flushing = true;
+    ByteBuffer batch = pending;
+    pending = spare;
+    long upTo = lastAppended;
+    int count = batch.position() / RECORD_BYTES;
+    FileChannel target = channel;
+    lock.unlock();
+    IOException error = null;
+    try {
+      batch.flip();
+      while (batch.hasRemaining())
+        target.write(batch);
+      target.force(false);
+    } catch (IOException e) {
+      error = e;
+    } finally {
+      lock.lock();
+      batch.clear();
+      spare = batch;
+      if (error != null)
+        failure = error;
+      else
+        durable = upTo;
+      forces++;
+      records += count;
+      flushing = false;
+      flushed.signalAll();
+    }
+  }
+
+  /**
+   * Makes everything appended so far durable and continues in a new segment
+   * starting at the next sequence number. Callers must prevent concurrent
+   * appends while rotating.
+   *
+   * @return the last sequence number stored in the previous segments
+   * @throws IOException if flushing or creating the segment fails
+   */
+  long rotate() throws IOException {
+    awaitDurable(lastAppended());
+    lock.lock();
+    try {
+      while (flushing)
+        flushed.awaitUninterruptibly();
+      channel.close();
+      currentFirstSeq = lastAppended + 1;
+      channel = openSegment(currentFirstSeq);
+      return lastAppended;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Deletes segments that only contain records up to {@code seq}, i.e. every
+   * segment preceding the one that holds {@code seq + 1}.
+   *
+   * @param seq last sequence number covered by a durable snapshot
+   * @throws IOException if listing or deleting fails
+   */
+  void deleteUpTo(long seq) throws IOException {
+    long current;
+    lock.lock();
+    try {
+      current = currentFirstSeq;
+    } finally {
+      lock.unlock();
+    }
+    for (Path segment : segments(dir)) {
+      if (firstSeq(segment) <= seq && firstSeq(segment) < current)
+        Files.delete(segment);
+    }
+  }
+
+  /** Returns the sequence number of the last appended record. */
+  long lastAppended() {
+    lock.lock();
+    try {
+      return lastAppended;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Returns how many times the log was forced to disk. */
+  long forces() {
+    lock.lock();
+    try {
+      return forces;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Returns how many records were written by those forces. */
+  long records() {
+    lock.lock();
+    try {
+      return records;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    awaitDurable(lastAppended());
+    lock.lock();
+    try {
+      while (flushing)
+        flushed.awaitUninterruptibly();
+      channel.close();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Replays every intact record with a sequence number greater than
+   * {@code afterSeq}, segment by segment. A torn or corrupt record ends the
+   * replay of its segment, since nothing after it was acknowledged.
+   *
+   * @param dir log directory
+   * @param afterSeq records up to this sequence number are skipped
+   * @param sink receives the records in log order
+   * @return the highest sequence number seen, or {@code afterSeq} if none
+   * @throws IOException if a segment cannot be read
+   */
+  static long replay(Path dir, long afterSeq, Consumer<Entry> sink) throws IOException {
+    long last = afterSeq;
+    ByteBuffer buf = ByteBuffer.allocate(RECORD_BYTES);
+    for (Path segment : segments(dir)) {
+      try (FileChannel ch = FileChannel.open(segment, StandardOpenOption.READ)) {
+        while (true) {
+          buf.clear();
+          while (buf.hasRemaining() && ch.read(buf) > 0) {
+            // keep reading until the record is complete or EOF
+          }
+          if (buf.hasRemaining())
+            break; // EOF or torn tail
+          buf.flip();
+          Entry e = decode(buf);
+          if (e == null)
+            break; // checksum mismatch
+          if (e.seq() > afterSeq) {
+            sink.accept(e);
+            last = Math.max(last, e.seq());
+          }
+        }
+      }
+    }
+    return last;
+  }
+
+  private FileChannel openSegment(long firstSeq) throws IOException {
+    FileChannel ch = FileChannel.open(segmentPath(dir, firstSeq), StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    try {
+      // the new name must survive a crash before older segments may be deleted
+      forceDirectory(dir);
+    } catch (IOException e) {
+      ch.close();
+      throw e;
+    }
+    return ch;
+  }
+
+  /**
+   * Makes the entries of {@code dir} (created, renamed files) durable. Forcing
+   * a file only covers its contents, not the name that points to it. Windows
+   * cannot open directories and persists entries on its own, so it is skipped
+   * there.
+   *
+   * @param dir directory to flush
+   * @throws IOException if the directory cannot be forced
+   */
+  static void forceDirectory(Path dir) throws IOException {
+    if (System.getProperty("os.name").startsWith("Windows"))
+      return;
+    try (FileChannel ch = FileChannel.open(dir, StandardOpenOption.READ)) {
+      ch.force(true);
+    }
+  }
+
+  private static Path segmentPath(Path dir, long firstSeq) {
+    return dir.resolve(String.format("%s%020d%s", PREFIX, firstSeq, SUFFIX));
+  }
+
+  private static long firstSeq(Path segment) {
+    String name = segment.getFileName().toString();
+    return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+  }
+
+  /** Lists the segments of {@code dir} ordered by their first sequence number. */
+  private static List<Path> segments(Path dir) throws IOException {
+    try (Stream<Path> files = Files.list(dir)) {
+      List<Path> result = new ArrayList<>(files
+          .filter(p -> {
+            String n = p.getFileName().toString();
+            return n.startsWith(PREFIX) && n.endsWith(SUFFIX);
+          })
+          .toList());
+      // zero-padded names sort in sequence order
+      result.sort(null);
+      return result;
+    }
+  }
+
+  private static ByteBuffer grow(ByteBuffer buf) {
+    ByteBuffer bigger = ByteBuffer.allocate(buf.capacity() * 2);
+    buf.flip();
+    bigger.put(buf);
+    return bigger;
+  }
+
+  private static void encode(ByteBuffer out, int type, long seq, long a, long b, long amount) {
+    int start = out.position();
+    out.putInt(type).putLong(seq).putLong(a).putLong(b).putLong(amount);
+    CRC32 crc = new CRC32();
+    crc.update(out.array(), start, RECORD_BYTES - 4);
+    out.putInt((int) crc.getValue());
+  }
+
+  private static Entry decode(ByteBuffer in) {
+    CRC32 crc = new CRC32();
+    crc.update(in.array(), 0, RECORD_BYTES - 4);
+    int type = in.getInt();
+    long seq = in.getLong();
+    long a = in.getLong();
+    long b = in.getLong();
+    long amount = in.getLong();
+    if (in.getInt() != (int) crc.getValue())
+      return null;
+    return new Entry(type, seq, a, b, amount);
+  }
+}
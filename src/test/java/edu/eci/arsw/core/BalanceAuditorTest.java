@@ -0,0 +1,48 @@
+package edu.eci.arsw.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Runs audits concurrently with ordered transfers and checks that every audit
+ * observes a conserved total.
+ */
+final class BalanceAuditorTest {
+  @Test void auditsAreConsistentDuringTransfers() throws Exception {
+    List<BankAccount> accounts = new ArrayList<>();
+    for (int i = 0; i < 32; i++)
+      accounts.add(new BankAccount(i, 100));
+    var running = new AtomicBoolean(true);
+    try (var exec = Executors.newFixedThreadPool(4)) {
+      for (int t = 0; t < 4; t++) {
+        exec.submit(() -> {
+          var rnd = ThreadLocalRandom.current();
+          while (running.get()) {
+            try {
+              TransferService.transferOrdered(accounts.get(rnd.nextInt(32)), accounts.get(rnd.nextInt(32)), 7);
+            } catch (IllegalArgumentException insufficient) {
+              // expected now and then
+            }
+          }
+        });
+      }
+      try {
+        for (int i = 0; i < 500; i++) {
+          AuditReport report = BalanceAuditor.audit(accounts, 3_200);
+          assertEquals(3_200, report.total(), "audit " + report.epoch());
+          assertTrue(report.conserved());
+        }
+      } finally {
+        running.set(false); // a failed assertion must not leave close() waiting on the workers
+      }
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package edu.eci.arsw.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies that tryLock transfers conserve money under contention for every
+ * retry policy and report at least one attempt per transfer, and that flat
+ * combining and stamped transfers conserve money.
+ */
+final class TransferServiceTest {
+  @Test void tryLockConservesMoneyForAllPolicies() throws Exception {
+    for (String name : new String[] { "fixed", "jitter", "spin", "adaptive" }) {
+      var policy = RetryPolicy.named(name);
+      var a = new BankAccount(1, 1000);
+      var b = new BankAccount(2, 1000);
+      var attempts = new LongAdder();
+      try (var exec = Executors.newVirtualThreadPerTaskExecutor()) {
+        for (int i = 0; i < 200; i++) {
+          exec.submit(() -> {
+            attempts.add(TransferService.transferTryLock(a, b, 1, Duration.ofSeconds(5), policy).attempts());
+            return null;
+          });
+          exec.submit(() -> {
+            attempts.add(TransferService.transferTryLock(b, a, 1, Duration.ofSeconds(5), policy).attempts());
+            return null;
+          });
+        }
+      }
+      assertEquals(2000, a.balance() + b.balance(), name);
+      assertTrue(attempts.sum() >= 400, name);
+    }
+  }
+
+  @Test void flatCombiningConservesMoneyOnHotAccount() throws Exception {
+    var service = new FlatCombiningTransferService(4);
+    var hot = new BankAccount(0, 10_000);
+    var others = new BankAccount[8];
+    for (int i = 0; i < others.length; i++)
+      others[i] = new BankAccount(i + 1, 10_000);
+    var transfers = new ArrayList<Future<?>>();
+    try (var exec = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < 2_000; i++) {
+        var other = others[i % others.length];
+        boolean outgoing = i % 2 == 0;
+        transfers.add(exec.submit(() -> service.transfer(outgoing ? hot : other, outgoing ? other : hot, 3)));
+      }
+      for (var transfer : transfers)
+        transfer.get(); // rethrows a failed transfer
+    }
+    long total = hot.balance();
+    for (var other : others)
+      total += other.balance();
+    assertEquals(90_000, total);
+    assertEquals(10_000, hot.balance());
+  }
+
+  @Test void stampedTransfersConserveMoneyWhileReading() throws Exception {
+    // each writer can move at most its source's initial balance, so no transfer may fail
+    var a = new StampedBankAccount(1, 5_000);
+    var b = new StampedBankAccount(2, 5_000);
+    try (var exec = Executors.newFixedThreadPool(3)) {
+      var reader = exec.submit(() -> {
+        for (int i = 0; i < 100_000; i++) {
+          long seen = a.balance();
+          assertTrue(seen >= 0 && seen <= 10_000);
+        }
+      });
+      var ab = exec.submit(() -> {
+        for (int i = 0; i < 5_000; i++)
+          TransferService.transferStamped(a, b, 1);
+      });
+      var ba = exec.submit(() -> {
+        for (int i = 0; i < 5_000; i++)
+          TransferService.transferStamped(b, a, 1);
+      });
+      reader.get();
+      ab.get();
+      ba.get();
+    }
+    assertEquals(10_000, a.balance() + b.balance());
+  }
+}
@@ -0,0 +1,47 @@
+package edu.eci.arsw.ledger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks conservation of money and the failure outcomes of the sharded
+ * ledger, including refunds of cross-shard reservations.
+ */
+final class ShardedLedgerTest {
+  @Test void conservesMoneyAcrossShards() {
+    try (var ledger = new ShardedLedger(4)) {
+      for (int i = 0; i < 64; i++)
+        ledger.open(i, 100).join();
+      List<CompletableFuture<TransferOutcome>> pending = new ArrayList<>();
+      var rnd = ThreadLocalRandom.current();
+      for (int i = 0; i < 20_000; i++)
+        pending.add(ledger.transfer(rnd.nextInt(64), rnd.nextInt(64), 1 + rnd.nextInt(20)));
+      pending.forEach(CompletableFuture::join);
+      long total = ledger.totalBalance().join();
+      assertEquals(6_400L, total);
+      assertTrue(ledger.crossShardTransfers() > 0);
+    }
+  }
+
+  @Test void rejectsAndRefunds() {
+    try (var ledger = new ShardedLedger(2)) {
+      ledger.open(0, 10).join();
+      ledger.open(1, 10).join();
+      assertEquals(TransferOutcome.INSUFFICIENT_FUNDS, ledger.transfer(0, 1, 11).join());
+      // account 3 lives on the other shard than account 0 and does not exist
+      assertEquals(TransferOutcome.UNKNOWN_ACCOUNT, ledger.transfer(0, 3, 5).join());
+      long refunded = ledger.balance(0).join();
+      assertEquals(10L, refunded);
+      assertEquals(TransferOutcome.COMMITTED, ledger.transfer(0, 1, 10).join());
+      long credited = ledger.balance(1).join();
+      assertEquals(20L, credited);
+    }
+  }
+}
@@ -0,0 +1,170 @@
+package edu.eci.arsw.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.eci.arsw.core.BankAccount;
+
+/**
+ * Recovery tests for the durable ledger: log replay, snapshot plus log tail,
+ * a torn record at the end of the log, and log order of dependent transfers
+ * and of transfers into just-opened accounts.
+ */
+final class DurableLedgerTest {
+  @TempDir Path dir;
+
+  @Test void recoversFromLogAndSnapshot() throws Exception {
+    try (var ledger = DurableLedger.open(dir)) {
+      ledger.openAccount(1, 500);
+      ledger.openAccount(2, 500);
+      try (var exec = Executors.newVirtualThreadPerTaskExecutor()) {
+        for (int i = 0; i < 100; i++) {
+          exec.submit(() -> {
+            ledger.transfer(1, 2, 3);
+            return null;
+          });
+        }
+      }
+      ledger.snapshot();
+      ledger.transfer(2, 1, 50);
+    }
+    try (var recovered = DurableLedger.open(dir)) {
+      assertEquals(250, recovered.account(1).balance());
+      assertEquals(750, recovered.account(2).balance());
+      recovered.transfer(1, 2, 10);
+    }
+    try (var again = DurableLedger.open(dir)) {
+      assertEquals(240, again.account(1).balance());
+      assertEquals(1000, again.totalBalance());
+    }
+  }
+
+  @Test void ignoresTornTail() throws Exception {
+    try (var ledger = DurableLedger.open(dir)) {
+      ledger.openAccount(1, 100);
+      ledger.openAccount(2, 0);
+      ledger.transfer(1, 2, 40);
+    }
+    Path segment;
+    try (var files = Files.list(dir)) {
+      segment = files.filter(p -> p.getFileName().toString().startsWith("wal-")).findFirst().orElseThrow();
+    }
+    try (var ch = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+      ch.truncate(ch.size() - 5); // cut the last record in half
+    }
+    try (var recovered = DurableLedger.open(dir)) {
+      assertEquals(100, recovered.account(1).balance());
+      assertEquals(0, recovered.account(2).balance());
+    }
+  }
+
+  /**
+   * Money hops along a chain of accounts, each hop only possible after the
+   * previous one. Every prefix of the log must be a state that existed, so
+   * replaying it record by record never overdraws an account.
+   */
+  @Test void logOrderMatchesApplyOrderForDependentTransfers() throws Exception {
+    int hops = 64;
+    try (var ledger = DurableLedger.open(dir)) {
+      ledger.openAccount(0, 100);
+      for (int id = 1; id <= hops; id++)
+        ledger.openAccount(id, 0);
+      try (var exec = Executors.newFixedThreadPool(hops)) {
+        for (int i = hops - 1; i >= 0; i--) {
+          BankAccount from = ledger.account(i);
+          long fromId = i;
+          exec.submit(() -> {
+            // fire as soon as the previous hop is applied, possibly before it is logged
+            while (lockedBalance(from) < 100)
+              Thread.yield();
+            ledger.transfer(fromId, fromId + 1, 100);
+            return null;
+          });
+        }
+      }
+      assertEquals(100, ledger.account(hops).balance());
+    }
+    Map<Long, Long> balances = new HashMap<>();
+    WriteAheadLog.replay(dir, 0, e -> {
+      if (e.type() == WriteAheadLog.OPEN) {
+        balances.put(e.a(), e.amount());
+      } else {
+        long left = balances.merge(e.a(), -e.amount(), Long::sum);
+        balances.merge(e.b(), e.amount(), Long::sum);
+        assertTrue(left >= 0, "record " + e.seq() + " overdraws account " + e.a());
+      }
+    });
+    assertEquals(100, (long) balances.get((long) hops));
+  }
+
+  /**
+   * Transfers into each account as soon as it becomes visible. Its OPEN record
+   * must still come first in the log, or replay loses the transfer.
+   */
+  @Test void transferToNewAccountIsLoggedAfterItsOpen() throws Exception {
+    int accounts = 200;
+    try (var ledger = DurableLedger.open(dir)) {
+      ledger.openAccount(0, accounts);
+      try (var exec = Executors.newFixedThreadPool(2)) {
+        var opener = exec.submit(() -> {
+          for (long id = 1; id <= accounts; id++)
+            ledger.openAccount(id, 0);
+          return null;
+        });
+        var payer = exec.submit(() -> {
+          for (long id = 1; id <= accounts; id++) {
+            while (!exists(ledger, id))
+              Thread.yield();
+            ledger.transfer(0, id, 1);
+          }
+          return null;
+        });
+        opener.get();
+        payer.get();
+      }
+    }
+    Set<Long> opened = new HashSet<>();
+    WriteAheadLog.replay(dir, 0, e -> {
+      if (e.type() == WriteAheadLog.OPEN)
+        opened.add(e.a());
+      else
+        assertTrue(opened.contains(e.b()), "record " + e.seq() + " pays account " + e.b() + " before its OPEN");
+    });
+    try (var recovered = DurableLedger.open(dir)) {
+      assertEquals(0, recovered.account(0).balance());
+      for (long id = 1; id <= accounts; id++)
+        assertEquals(1, recovered.account(id).balance());
+    }
+  }
+
+  private static boolean exists(DurableLedger ledger, long id) {
+    try {
+      ledger.account(id);
+      return true;
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  private static long lockedBalance(BankAccount account) {
+    account.lock().lock();
+    try {
+      return account.balance();
+    } finally {
+      account.lock().unlock();
+    }
+  }
+}